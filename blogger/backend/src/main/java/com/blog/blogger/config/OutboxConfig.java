@@ -0,0 +1,60 @@
+package com.blog.blogger.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.blog.blogger.events.CommentAddedEvent;
+import com.blog.blogger.events.OutboxConsumer;
+import com.blog.blogger.events.PostPublishedEvent;
+import com.blog.blogger.events.UserFollowedEvent;
+import com.blog.blogger.service.HotPostService;
+import com.blog.blogger.services.NotificationService;
+
+/**
+ * Worker pool used by OutboxDispatcher, and the consumers that are plain
+ * method references. The queue is bounded: when it is full the dispatcher
+ * runs the delivery itself, which slows polling down instead of dropping work.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor outboxExecutor(@Value("${outbox.workers:2}") int workers,
+                                                 @Value("${outbox.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("outbox-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean
+    public OutboxConsumer<UserFollowedEvent> followNotifications(NotificationService notificationService) {
+        return OutboxConsumer.of("followNotifications", UserFollowedEvent.class, notificationService::notifyUserAboutNewFollower);
+    }
+
+    @Bean
+    public OutboxConsumer<PostPublishedEvent> hotNewPosts(HotPostService hotPostService) {
+        return OutboxConsumer.of("hotNewPosts", PostPublishedEvent.class,
+                (eventId, event) -> hotPostService.recordPublished(event.postId()));
+    }
+
+    @Bean
+    public OutboxConsumer<CommentAddedEvent> hotComments(HotPostService hotPostService) {
+        return OutboxConsumer.of("hotComments", CommentAddedEvent.class,
+                (eventId, event) -> hotPostService.recordComment(event.postId()));
+    }
+
+    @Bean
+    public OutboxConsumer<CommentAddedEvent> commentNotifications(NotificationService notificationService) {
+        return OutboxConsumer.of("commentNotifications", CommentAddedEvent.class, notificationService::notifyUserAboutComment);
+    }
+}
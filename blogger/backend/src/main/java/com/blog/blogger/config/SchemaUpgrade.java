@@ -0,0 +1,46 @@
+package com.blog.blogger.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * SchemaUpgrade - Column changes that spring.jpa.hibernate.ddl-auto=update does not apply
+ *
+ * Hibernate adds new columns but never alters existing ones, so a column made
+ * NOT NULL in an entity stays nullable in databases created before. Each step
+ * here checks information_schema, fills the NULLs and alters the column once;
+ * afterwards a start costs one metadata query per step. Runs before the
+ * ApplicationReadyEvent loaders that rely on the tightened columns.
+ */
+@Configuration
+public class SchemaUpgrade {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaUpgrade.class);
+
+    @Bean
+    CommandLineRunner upgradeSchema(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            // Posts from before hiding existed have NULL, which always meant visible
+            requireNotNull(jdbcTemplate, "posts", "is_hidden", "BIT(1)", "0");
+            // Filled for real by the counter reconciler; a NULL would break comment_count + :delta
+            requireNotNull(jdbcTemplate, "posts", "comment_count", "INT", "0");
+        };
+    }
+
+    private static void requireNotNull(JdbcTemplate jdbcTemplate, String table, String column, String type, String defaultValue) {
+        Integer nullable = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() " +
+                "AND table_name = ? AND column_name = ? AND is_nullable = 'YES'",
+                Integer.class, table, column);
+        if (nullable == null || nullable == 0) {
+            return;
+        }
+        int filled = jdbcTemplate.update("UPDATE " + table + " SET " + column + " = " + defaultValue + " WHERE " + column + " IS NULL");
+        jdbcTemplate.execute("ALTER TABLE " + table + " MODIFY " + column + " " + type + " NOT NULL DEFAULT " + defaultValue);
+        log.info("Made {}.{} NOT NULL DEFAULT {} after filling {} rows", table, column, defaultValue, filled);
+    }
+}
@@ -49,6 +49,9 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
             // Public endpoints
             .requestMatchers("/auth/register", "/auth/login", "/auth/home").permitAll()
             .requestMatchers("/error").permitAll()
+            // Actuator: health is public, metrics are for admins
+            .requestMatchers("/actuator/health").permitAll()
+            .requestMatchers("/actuator/**").hasRole("ADMIN")
             // Allow access to uploaded files
             .requestMatchers("/uploads/**").permitAll()
             // Allow GET requests to posts (public view)
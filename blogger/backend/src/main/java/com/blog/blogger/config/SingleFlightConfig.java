@@ -0,0 +1,35 @@
+package com.blog.blogger.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.blog.blogger.dto.UserProfileDTO;
+import com.blog.blogger.models.Post;
+import com.blog.blogger.utils.SingleFlight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * One single-flight group per entity type, each switched on and tuned separately
+ * through singleflight.&lt;type&gt;.* properties.
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlight<Long, Post> postLoads(MeterRegistry meterRegistry,
+                                              @Value("${singleflight.posts.enabled:true}") boolean enabled,
+                                              @Value("${singleflight.posts.max-wait-ms:2000}") long maxWaitMs) {
+        return new SingleFlight<>("posts", enabled, Duration.ofMillis(maxWaitMs), meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<Long, UserProfileDTO> profileLoads(MeterRegistry meterRegistry,
+                                                           @Value("${singleflight.profiles.enabled:true}") boolean enabled,
+                                                           @Value("${singleflight.profiles.max-wait-ms:2000}") long maxWaitMs) {
+        return new SingleFlight<>("profiles", enabled, Duration.ofMillis(maxWaitMs), meterRegistry);
+    }
+}
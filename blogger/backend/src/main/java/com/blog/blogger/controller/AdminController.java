@@ -6,12 +6,15 @@ import java.util.Map;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import com.blog.blogger.dto.AdminStatsDTO;
+import com.blog.blogger.dto.ErasureJobDTO;
+import com.blog.blogger.dto.PostDTO;
 import com.blog.blogger.dto.UserProfileDTO;
-import com.blog.blogger.models.Post;
 import com.blog.blogger.models.Role;
+import com.blog.blogger.models.User;
 import com.blog.blogger.service.AdminService;
 import org.springframework.data.domain.Page;
 
@@ -144,13 +147,18 @@ public class AdminController {
 
     /**
      * DELETE /auth/admin/users/{id}
-     * Delete a user (admin only)
+     * Delete a user (admin only). The account is banned at once and its data is
+     * erased in the background; poll GET /auth/admin/erasure-jobs/{jobId}.
      */
     @DeleteMapping("/users/{id}")
-    public ResponseEntity<?> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<?> deleteUser(@PathVariable Long id,
+                                        @AuthenticationPrincipal User currentUser) {
         try {
-            adminService.deleteUser(id);
-            return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
+            ErasureJobDTO job = adminService.deleteUser(id, currentUser.getId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "message", "User deletion started",
+                    "jobId", job.getJobId(),
+                    "status", job.getStatus()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
@@ -160,6 +168,20 @@ public class AdminController {
         }
     }
 
+    /**
+     * GET /auth/admin/erasure-jobs/{jobId}
+     * Progress of a user deletion
+     */
+    @GetMapping("/erasure-jobs/{jobId}")
+    public ResponseEntity<?> getErasureJob(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(adminService.getErasureJob(jobId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * GET /auth/admin/posts
      * Get all posts (for moderation)
@@ -168,7 +190,7 @@ public class AdminController {
     public ResponseEntity<?> getAllPosts(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size) {
-        Page<Post> postPage = adminService.getAllPosts(page, size);
+        Page<PostDTO> postPage = adminService.getAllPosts(page, size);
 
         return ResponseEntity.ok(Map.of(
                 "posts", postPage.getContent(),
@@ -1,11 +1,16 @@
 package com.blog.blogger.controller;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import  org.springframework.http.ResponseEntity;
@@ -19,17 +24,32 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.blog.blogger.dto.CommentDTO;
 import com.blog.blogger.dto.CreateCommentDTO;
 import com.blog.blogger.dto.CreatePostDTO;
+import com.blog.blogger.dto.CursorPage;
+import com.blog.blogger.dto.PostDTO;
+import com.blog.blogger.dto.ReplyDTO;
+import com.blog.blogger.dto.TagCountDTO;
 import com.blog.blogger.models.Comment;
 import com.blog.blogger.models.Post;
+import com.blog.blogger.models.Response;
 import com.blog.blogger.models.User;
 import com.blog.blogger.repository.UserRepository;
+import com.blog.blogger.service.CommentBatchWriter;
 import com.blog.blogger.service.CommentService;
+import com.blog.blogger.service.FeedVersionService;
 import com.blog.blogger.service.FileStorageService;
 import com.blog.blogger.service.PostService;
+import com.blog.blogger.service.PublicFeedCache;
+import com.blog.blogger.service.ReplyService;
+import com.blog.blogger.service.TagService;
+import com.blog.blogger.utils.ETags;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/auth/posts")
@@ -41,6 +61,9 @@ public class PostController {
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private CommentBatchWriter commentBatchWriter;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -48,7 +71,16 @@ public class PostController {
     private FileStorageService fileStorageService;
 
     @Autowired
-    private com.blog.blogger.services.NotificationService notificationService;
+    private TagService tagService;
+
+    @Autowired
+    private FeedVersionService feedVersionService;
+
+    @Autowired
+    private PublicFeedCache publicFeedCache;
+
+    @Autowired
+    private ReplyService replyService;
 
     /**
      * Check if user is banned and throw exception if so
@@ -58,34 +90,176 @@ public class PostController {
             throw new RuntimeException("User account is banned and cannot perform this action");
         }
     }
+    /**
+     * GET /auth/posts?page=1&size=10   (offset mode, with totals)
+     * GET /auth/posts?cursor=&size=10  (cursor mode: pass an empty cursor for the
+     * first page, then the returned "next" token until it is null)
+     *
+     * Answers 304 before any query when If-None-Match carries the current feed version.
+     * First pages for logged-out readers are written from PublicFeedCache as-is and
+     * tagged with the cached bytes, which can lag the feed version by the cache TTL.
+     */
     @GetMapping()
-    public ResponseEntity<Map<String, Object>> getAllPosts(
+    public ResponseEntity<?> getAllPosts(
         @RequestParam(defaultValue = "1") int page,
-        @RequestParam(defaultValue = "10") int size
+        @RequestParam(defaultValue = "10") int size,
+        @RequestParam(required = false) String cursor,
+        @AuthenticationPrincipal User currentUser,
+        WebRequest request,
+        HttpServletResponse servletResponse
 ) {
-    Page<Post> postPage = postService.getAllPosts(page, size);
-
-    Map<String, Object> response = new HashMap<>();
-    response.put("posts", postPage.getContent());
-    response.put("total", postPage.getTotalElements());
-    response.put("totalPages", postPage.getTotalPages());
-    response.put("currentPage", page);
+    ETags.requireRevalidation(servletResponse);
+    String cacheKey = currentUser == null ? publicFeedCache.keyFor(page, size, cursor) : null;
+    if (cacheKey != null) {
+        PublicFeedCache.CachedPage cached = publicFeedCache.get(cacheKey, () -> feedPage(page, size, cursor, null));
+        if (request.checkNotModified(cached.etag())) {
+            return null;
+        }
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.gzip());
+        }
+        return response.body(cached.json());
+    }
 
-    return ResponseEntity.ok(response);
+    if (request.checkNotModified(feedVersionService.etag(currentUser))) {
+        return null;
+    }
+    return ResponseEntity.ok(feedPage(page, size, cursor, currentUser));
 }
 
+    private Map<String, Object> feedPage(int page, int size, String cursor, User currentUser) {
+        Map<String, Object> response = new HashMap<>();
+        if (cursor != null) {
+            CursorPage<PostDTO> postPage = postService.getPostsByCursor(cursor, size, currentUser);
+            response.put("posts", postPage.getItems());
+            response.put("next", postPage.getNext());
+            return response;
+        }
+
+        Page<PostDTO> postPage = postService.getAllPosts(page, size, currentUser);
+        response.put("posts", postPage.getContent());
+        response.put("total", postPage.getTotalElements());
+        response.put("totalPages", postPage.getTotalPages());
+        response.put("currentPage", page);
+        return response;
+    }
+
+    /**
+     * GET /auth/posts/following?cursor=&size=10
+     * Posts from followed users, newest first, read from the materialized timeline
+     */
     @GetMapping("/following")
-    public ResponseEntity<List<Post>> getPostsFromFollowedUsers(
+    public ResponseEntity<Map<String, Object>> getPostsFromFollowedUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal User currentUser) {
+        CursorPage<PostDTO> postPage = postService.getPostsFromFollowedUsers(currentUser, cursor, size);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("posts", postPage.getItems());
+        response.put("next", postPage.getNext());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /auth/posts/hot?page=1&size=10
+     * Posts ranked by recent likes and comments with time decay (see HotPostService)
+     */
+    @GetMapping("/hot")
+    public ResponseEntity<Map<String, Object>> getHotPosts(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal User currentUser) {
+        Slice<PostDTO> postPage = postService.getHotPosts(page, size, currentUser);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("posts", postPage.getContent());
+        response.put("currentPage", page);
+        response.put("hasNext", postPage.hasNext());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /auth/posts/tags?prefix=sp&limit=10
+     * Most used tags with their number of visible posts (tag cloud, autocomplete)
+     */
+    @GetMapping("/tags")
+    public ResponseEntity<List<TagCountDTO>> getTags(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(tagService.topTags(prefix, limit));
+    }
+
+    /**
+     * GET /auth/posts/tags/{tag}?cursor=...
+     * Visible posts with this tag, newest first
+     */
+    @GetMapping("/tags/{tag}")
+    public ResponseEntity<Map<String, Object>> getPostsByTag(
+            @PathVariable String tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
             @AuthenticationPrincipal User currentUser) {
-        List<Post> posts = postService.getPostsFromFollowedUsers(currentUser.getUsername());
-        return ResponseEntity.ok(posts);
+        CursorPage<PostDTO> postPage = postService.getPostsByTag(tag, cursor, size, currentUser);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("posts", postPage.getItems());
+        response.put("next", postPage.getNext());
+        return ResponseEntity.ok(response);
     }
 
+    /**
+     * GET /auth/posts/search?q=spring+boot&cursor=...
+     * Full-text search over title, content and tags, best match first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchPosts(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal User currentUser) {
+        CursorPage<PostDTO> postPage = postService.searchPosts(q, cursor, size, currentUser);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("posts", postPage.getItems());
+        response.put("next", postPage.getNext());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /auth/posts/liked?ids=1,2,3
+     * Which of these posts the current user has liked, e.g. {"1": true, "2": false};
+     * all false for anonymous callers
+     */
+    @GetMapping("/liked")
+    public ResponseEntity<Map<Long, Boolean>> getLikedPosts(@RequestParam List<Long> ids,
+                                                            @AuthenticationPrincipal User currentUser) {
+        Set<Long> liked = postService.getLikedPostIds(currentUser, ids);
+        return ResponseEntity.ok(toLikedMap(ids, liked));
+    }
+
+    /**
+     * GET /auth/posts/{id}
+     * Served from the post cache; 304 when If-None-Match matches the cached version
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Post> getPostById(@PathVariable Long id) {
-        return postService.getPostById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Post> getPostById(@PathVariable Long id, WebRequest request,
+                                            HttpServletResponse servletResponse) {
+        ETags.requireRevalidation(servletResponse);
+        Post post = postService.getPostById(id).orElse(null);
+        if (post == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(ETags.forPost(post))) {
+            return null;
+        }
+        return ResponseEntity.ok(post);
     }
 
     @PostMapping
@@ -99,6 +273,7 @@ public class PostController {
                 .content(dto.getContent())
                 .mediaType(dto.getMediaType())
                 .mediaUrl(dto.getMediaUrl())
+                .tags(dto.getTags() == null ? new ArrayList<>() : new ArrayList<>(dto.getTags()))
                 .author(currentUser)
                 .build();
 
@@ -191,6 +366,7 @@ public class PostController {
                     .content(dto.getContent())
                     .mediaType(dto.getMediaType())
                     .mediaUrl(dto.getMediaUrl())
+                    .tags(dto.getTags()) // null keeps the current tags
                     .build();
 
             Post savedPost = postService.updatePost(id, updatedPost);
@@ -262,10 +438,9 @@ public ResponseEntity<?> deletePost(@PathVariable Long id,
                 .post(post)
                 .build();
 
-        commentService.addComment(comment);
-
-        // Notify post author about the new comment
-        notificationService.notifyUserAboutComment(post, currentUser);
+        // Group-committed with other comments arriving at the same time; the post
+        // author is notified from the outbox (COMMENT_ADDED)
+        commentBatchWriter.write(comment);
 
         // Return a simple success response instead of the full post to avoid circular reference issues
         return ResponseEntity.ok(java.util.Map.of(
@@ -276,17 +451,41 @@ public ResponseEntity<?> deletePost(@PathVariable Long id,
     }
 
     /**
-     * GET /auth/posts/{postId}/comments?page=0&size=5
-     * Get paginated comments for a post
+     * GET /auth/posts/{postId}/comments?page=0&size=5   (offset mode, with totals)
+     * GET /auth/posts/{postId}/comments?cursor=&size=5  (cursor mode: flat comments
+     * with author fields and replyCount, then the returned "next" token until null)
+     * GET /auth/posts/{postId}/comments?sort=top&page=0&size=5  (most liked first,
+     * same comment fields, hasNext instead of totals; see TopCommentIndex)
      */
     @GetMapping("/{postId}/comments")
     public ResponseEntity<Map<String, Object>> getComments(
             @PathVariable Long postId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "5") int size) {
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort) {
         Post post = postService.getPostById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found with id: " + postId));
 
+        if ("top".equals(sort)) {
+            Slice<CommentDTO> commentPage = commentService.getTopComments(post.getId(), page, size);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("comments", commentPage.getContent());
+            response.put("currentPage", page);
+            response.put("hasNext", commentPage.hasNext());
+            return ResponseEntity.ok(response);
+        }
+
+        if (cursor != null) {
+            CursorPage<CommentDTO> commentPage = commentService.getCommentsByCursor(post.getId(), cursor, size);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("comments", commentPage.getItems());
+            response.put("next", commentPage.getNext());
+            return ResponseEntity.ok(response);
+        }
+
         Page<Comment> commentPage = commentService.getCommentsByPost(post, page, size);
 
         Map<String, Object> response = new HashMap<>();
@@ -303,13 +502,16 @@ public ResponseEntity<?> deletePost(@PathVariable Long id,
      * Like a post (authenticated users only)
      */
     @PostMapping("/{id}/like")
-    public ResponseEntity<Post> likePost(@PathVariable Long id,
-                                         @AuthenticationPrincipal User currentUser) {
+    public ResponseEntity<?> likePost(@PathVariable Long id,
+                                      @AuthenticationPrincipal User currentUser) {
         // Check if user is banned
         checkUserBanned(currentUser);
 
-        Post post = postService.likePost(id, currentUser);
-        return ResponseEntity.ok(post);
+        long likeCount = postService.likePost(id, currentUser);
+        return ResponseEntity.ok(Map.of(
+            "message", "Post liked",
+            "likeCount", likeCount
+        ));
     }
 
     /**
@@ -317,13 +519,16 @@ public ResponseEntity<?> deletePost(@PathVariable Long id,
      * Unlike a post (authenticated users only)
      */
     @DeleteMapping("/{id}/like")
-    public ResponseEntity<Post> unlikePost(@PathVariable Long id,
-                                           @AuthenticationPrincipal User currentUser) {
+    public ResponseEntity<?> unlikePost(@PathVariable Long id,
+                                        @AuthenticationPrincipal User currentUser) {
         // Check if user is banned
         checkUserBanned(currentUser);
 
-        Post post = postService.unlikePost(id, currentUser);
-        return ResponseEntity.ok(post);
+        long likeCount = postService.unlikePost(id, currentUser);
+        return ResponseEntity.ok(Map.of(
+            "message", "Post unliked",
+            "likeCount", likeCount
+        ));
     }
 
     /**
@@ -348,10 +553,10 @@ public ResponseEntity<?> deletePost(@PathVariable Long id,
         // Check if user is banned
         checkUserBanned(currentUser);
 
-        Comment comment = commentService.likeComment(commentId, currentUser);
+        long likeCount = commentService.likeComment(postId, commentId, currentUser);
         return ResponseEntity.ok(java.util.Map.of(
             "message", "Comment liked",
-            "likeCount", comment.getLikeCount()
+            "likeCount", likeCount
         ));
     }
 
@@ -366,13 +571,32 @@ public ResponseEntity<?> deletePost(@PathVariable Long id,
         // Check if user is banned
         checkUserBanned(currentUser);
 
-        Comment comment = commentService.unlikeComment(commentId, currentUser);
+        long likeCount = commentService.unlikeComment(postId, commentId, currentUser);
         return ResponseEntity.ok(java.util.Map.of(
             "message", "Comment unliked",
-            "likeCount", comment.getLikeCount()
+            "likeCount", likeCount
         ));
     }
 
+    /**
+     * GET /auth/posts/{postId}/comments/liked?ids=4,5,6
+     * Which of these comments of the post the current user has liked; ids of
+     * comments on other posts come back false
+     */
+    @GetMapping("/{postId}/comments/liked")
+    public ResponseEntity<Map<Long, Boolean>> getLikedComments(@PathVariable Long postId,
+                                                               @RequestParam List<Long> ids,
+                                                               @AuthenticationPrincipal User currentUser) {
+        Set<Long> liked = commentService.getLikedCommentIds(currentUser, postId, ids);
+        return ResponseEntity.ok(toLikedMap(ids, liked));
+    }
+
+    private Map<Long, Boolean> toLikedMap(List<Long> ids, Set<Long> liked) {
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        ids.forEach(id -> result.put(id, liked.contains(id)));
+        return result;
+    }
+
     /**
      * GET /auth/posts/{postId}/comments/{commentId}/liked
      * Check if the current user has liked this comment
@@ -385,6 +609,88 @@ public ResponseEntity<?> deletePost(@PathVariable Long id,
         return ResponseEntity.ok(liked);
     }
 
+    /**
+     * GET /auth/posts/{postId}/comments/{commentId}/replies?cursor=&size=10
+     * Replies to a comment, oldest first; follow "next" until it is null
+     */
+    @GetMapping("/{postId}/comments/{commentId}/replies")
+    public ResponseEntity<Map<String, Object>> getReplies(@PathVariable Long postId,
+                                                          @PathVariable Long commentId,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "10") int size) {
+        Comment comment = findCommentOfPost(postId, commentId);
+        CursorPage<ReplyDTO> replyPage = replyService.getReplies(comment.getId(), cursor, size);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("replies", replyPage.getItems());
+        response.put("next", replyPage.getNext());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * POST /auth/posts/{postId}/comments/{commentId}/replies
+     * Reply to a comment (authenticated users only)
+     */
+    @PostMapping("/{postId}/comments/{commentId}/replies")
+    public ResponseEntity<ReplyDTO> addReply(@PathVariable Long postId,
+                                             @PathVariable Long commentId,
+                                             @RequestBody CreateCommentDTO dto,
+                                             @AuthenticationPrincipal User currentUser) {
+        checkUserBanned(currentUser);
+
+        Comment comment = findCommentOfPost(postId, commentId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(replyService.addReply(comment, currentUser, dto.getContent()));
+    }
+
+    /**
+     * DELETE /auth/posts/{postId}/comments/{commentId}/replies/{replyId}
+     * Delete a reply (only by its author, the post author, or admin)
+     */
+    @DeleteMapping("/{postId}/comments/{commentId}/replies/{replyId}")
+    public ResponseEntity<?> deleteReply(@PathVariable Long postId,
+                                         @PathVariable Long commentId,
+                                         @PathVariable Long replyId,
+                                         @AuthenticationPrincipal User currentUser) {
+        checkUserBanned(currentUser);
+
+        Post post = postService.getPostById(postId)
+                .orElseThrow(() -> new RuntimeException("Post not found with id: " + postId));
+        Response reply = replyService.getReplyById(replyId)
+                .filter(r -> r.getComment().getId().equals(commentId))
+                .orElseThrow(() -> new RuntimeException("Reply not found with id: " + replyId));
+        if (!reply.getComment().getPost().getId().equals(post.getId())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Reply does not belong to the specified post"));
+        }
+
+        boolean isReplyOwner = reply.getAuthor().getId().equals(currentUser.getId());
+        boolean isPostOwner = post.getAuthor().getId().equals(currentUser.getId());
+        boolean isAdmin = currentUser.getRole().name().equals("ADMIN");
+        if (!isReplyOwner && !isPostOwner && !isAdmin) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of(
+                        "error", "Forbidden",
+                        "message", "You are not authorized to delete this reply"
+                    ));
+        }
+
+        replyService.deleteReply(reply);
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "message", "Reply deleted successfully"
+        ));
+    }
+
+    private Comment findCommentOfPost(Long postId, Long commentId) {
+        Comment comment = commentService.getCommentById(commentId)
+                .orElseThrow(() -> new RuntimeException("Comment not found with id: " + commentId));
+        if (!comment.getPost().getId().equals(postId)) {
+            throw new RuntimeException("Comment not found with id: " + commentId);
+        }
+        return comment;
+    }
+
     /**
  * DELETE /auth/posts/{postId}/comments/{commentId}
  * Delete a comment (only by the author, post author, or admin)
@@ -1,5 +1,6 @@
 package com.blog.blogger.controller;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,16 +19,22 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.blog.blogger.dto.ChangePasswordDTO;
+import com.blog.blogger.dto.ErasureJobDTO;
 import com.blog.blogger.dto.UpdateProfileDTO;
 import com.blog.blogger.dto.UserProfileDTO;
+import com.blog.blogger.models.ErasureJob;
 import com.blog.blogger.models.User;
 import com.blog.blogger.repository.UserRepository;
 import com.blog.blogger.service.FileStorageService;
 import com.blog.blogger.service.SubscriptionService;
 import com.blog.blogger.service.UserService;
+import com.blog.blogger.utils.ETags;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * UserController - Handles user profile operations
@@ -100,10 +107,16 @@ public class UserController {
 
     /**
      * GET /auth/users/me
-     * Get current logged-in user's profile
+     * Get current logged-in user's profile (304 when unchanged)
      */
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUserProfile(@AuthenticationPrincipal User currentUser) {
+    public ResponseEntity<?> getCurrentUserProfile(@AuthenticationPrincipal User currentUser, WebRequest request,
+                                                   HttpServletResponse servletResponse) {
+        ETags.requireRevalidation(servletResponse);
+        if (request.checkNotModified(ETags.forUser(currentUser.getId(), currentUser.getUpdatedAt()),
+                ETags.millis(currentUser.getUpdatedAt()))) {
+            return null;
+        }
         try {
             UserProfileDTO profile = userService.convertToProfileDTO(currentUser);
             return ResponseEntity.ok(profile);
@@ -116,9 +129,18 @@ public class UserController {
     /**
      * GET /auth/users/{id}
      * Get user profile by ID (public - anyone can view)
+     *
+     * Revalidation reads only updated_at; the profile is loaded when it changed.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUserProfile(@PathVariable Long id) {
+    public ResponseEntity<?> getUserProfile(@PathVariable Long id, WebRequest request,
+                                            HttpServletResponse servletResponse) {
+        ETags.requireRevalidation(servletResponse);
+        LocalDateTime updatedAt = userRepository.findUpdatedAtById(id).orElse(null);
+        if (updatedAt != null
+                && request.checkNotModified(ETags.forUser(id, updatedAt), ETags.millis(updatedAt))) {
+            return null;
+        }
         try {
             UserProfileDTO profile = userService.getUserProfile(id);
             return ResponseEntity.ok(profile);
@@ -206,8 +228,11 @@ public class UserController {
                         .body(Map.of("error", "You can only delete your own account"));
             }
 
-            userService.deleteUser(id);
-            return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
+            ErasureJob job = userService.deleteUser(id, currentUser.getId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "message", "Account deletion started",
+                    "jobId", job.getId(),
+                    "status", job.getStatus().name()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
@@ -217,6 +242,26 @@ public class UserController {
         }
     }
 
+    /**
+     * GET /auth/users/{id}/erasure
+     * Progress of the latest deletion of this account (owner or admin)
+     */
+    @GetMapping("/{id}/erasure")
+    public ResponseEntity<?> getErasureStatus(
+            @PathVariable Long id,
+            @AuthenticationPrincipal User currentUser) {
+        try {
+            if (!currentUser.getId().equals(id) && !userService.isAdmin(currentUser.getId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "You can only view your own account deletion"));
+            }
+            return ResponseEntity.ok(ErasureJobDTO.from(userService.getLatestErasureJob(id)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * GET /auth/users
      * Get all users (excluding current user)
@@ -348,8 +393,7 @@ public class UserController {
             String fileUrl = "/uploads/" + filename;
 
             // Update user's profilePictureUrl
-            currentUser.setProfilePictureUrl(fileUrl);
-            userRepository.save(currentUser);
+            userService.updateProfilePicture(currentUser, fileUrl);
 
             Map<String, String> response = new HashMap<>();
             response.put("filename", filename);
@@ -0,0 +1,48 @@
+package com.blog.blogger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * CommentDTO - Comment as returned by the cursor-paginated comment list
+ *
+ * Carries the reply count and only the first few replies (replies.inline-limit);
+ * the rest are paged through GET .../comments/{commentId}/replies.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommentDTO {
+    private Long id;
+    private String content;
+    private PostDTO.AuthorDTO author;
+    private int likeCount;
+    private long replyCount;
+    private List<ReplyDTO> replies;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static CommentDTO from(CommentSummaryView view) {
+        return CommentDTO.builder()
+                .id(view.getId())
+                .content(view.getContent())
+                .author(PostDTO.AuthorDTO.builder()
+                        .id(view.getAuthorId())
+                        .username(view.getAuthorUsername())
+                        .fullName(view.getAuthorFullName())
+                        .avatar(view.getAuthorAvatar())
+                        .profilePictureUrl(view.getAuthorProfilePictureUrl())
+                        .build())
+                .likeCount(view.getLikeCount())
+                .replyCount(view.getReplyCount())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .build();
+    }
+}
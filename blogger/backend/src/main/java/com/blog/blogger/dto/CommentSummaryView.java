@@ -0,0 +1,24 @@
+package com.blog.blogger.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * CommentSummaryView - Row shape of the comment list queries in CommentRepository
+ *
+ * One flat row per comment with the author columns joined in and the number of
+ * replies, so a page of comments is one query with no lazy loading afterwards.
+ */
+public interface CommentSummaryView {
+    Long getId();
+    String getContent();
+    int getLikeCount();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    long getReplyCount();
+
+    Long getAuthorId();
+    String getAuthorUsername();
+    String getAuthorFullName();
+    String getAuthorAvatar();
+    String getAuthorProfilePictureUrl();
+}
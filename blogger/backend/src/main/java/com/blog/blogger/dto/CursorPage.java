@@ -0,0 +1,21 @@
+package com.blog.blogger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * CursorPage - One page of a cursor-paginated list
+ *
+ * next is the opaque token for the following page, or null on the last page.
+ * There is deliberately no total count: computing it is what keyset pagination avoids.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String next;
+}
@@ -0,0 +1,52 @@
+package com.blog.blogger.dto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import com.blog.blogger.models.ErasureJob;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ErasureJobDTO - Status of a background account deletion
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ErasureJobDTO {
+    private Long jobId;
+    private Long userId;
+    private String status;
+    private String phase;
+    private long rowsPurged;
+    private Double rowsPerSecond;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    public static ErasureJobDTO from(ErasureJob job) {
+        Double rate = null;
+        if (job.getStartedAt() != null) {
+            LocalDateTime end = job.getCompletedAt() != null ? job.getCompletedAt() : LocalDateTime.now();
+            long millis = Math.max(1, Duration.between(job.getStartedAt(), end).toMillis());
+            rate = job.getRowsPurged() * 1000.0 / millis;
+        }
+        return ErasureJobDTO.builder()
+                .jobId(job.getId())
+                .userId(job.getUserId())
+                .status(job.getStatus().name())
+                .phase(job.getPhase().name())
+                .rowsPurged(job.getRowsPurged())
+                .rowsPerSecond(rate)
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
@@ -8,6 +8,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * PostDTO - Post as returned by list endpoints (feed, following, admin)
+ *
+ * Carries an excerpt instead of the full content; GET /auth/posts/{id} returns the whole post.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,13 +20,19 @@ import java.util.List;
 public class PostDTO {
     private Long id;
     private String title;
-    private String content;
+    private String excerpt;
+    private Integer wordCount;
+    private Integer readingTimeMinutes;
+    private String mediaType;
+    private String mediaUrl;
     private AuthorDTO author;          // Nested DTO for author info
     private int likeCount;
     private List<String> tags;
     private Integer commentCount;
+    private Boolean isHidden;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Boolean likedByMe;         // Set for the authenticated viewer, null otherwise
 
     
     @Data
@@ -33,5 +44,31 @@ public class PostDTO {
         private String username;
         private String fullName;
         private String avatar;
+        private String profilePictureUrl;
+    }
+
+    public static PostDTO from(PostSummaryView view, List<String> tags) {
+        return PostDTO.builder()
+                .id(view.getId())
+                .title(view.getTitle())
+                .excerpt(view.getExcerpt())
+                .wordCount(view.getWordCount())
+                .readingTimeMinutes(view.getReadingTimeMinutes())
+                .mediaType(view.getMediaType())
+                .mediaUrl(view.getMediaUrl())
+                .author(AuthorDTO.builder()
+                        .id(view.getAuthorId())
+                        .username(view.getAuthorUsername())
+                        .fullName(view.getAuthorFullName())
+                        .avatar(view.getAuthorAvatar())
+                        .profilePictureUrl(view.getAuthorProfilePictureUrl())
+                        .build())
+                .likeCount(view.getLikeCount())
+                .tags(tags)
+                .commentCount((int) view.getCommentCount())
+                .isHidden(view.getIsHidden())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .build();
     }
 }
@@ -0,0 +1,32 @@
+package com.blog.blogger.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * PostSummaryView - Row shape of the list queries in PostRepository
+ *
+ * One flat row per post with the author columns joined in, the precomputed
+ * excerpt and reading time instead of the full content and a comment count.
+ * Tags are loaded separately in one batch and the row is turned into a PostDTO
+ * by PostService.
+ */
+public interface PostSummaryView {
+    Long getId();
+    String getTitle();
+    String getExcerpt();
+    Integer getWordCount();
+    Integer getReadingTimeMinutes();
+    String getMediaType();
+    String getMediaUrl();
+    int getLikeCount();
+    long getCommentCount();
+    Boolean getIsHidden();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+
+    Long getAuthorId();
+    String getAuthorUsername();
+    String getAuthorFullName();
+    String getAuthorAvatar();
+    String getAuthorProfilePictureUrl();
+}
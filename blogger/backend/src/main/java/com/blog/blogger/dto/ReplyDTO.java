@@ -0,0 +1,41 @@
+package com.blog.blogger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ReplyDTO - A reply to a comment (stored as a Response)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReplyDTO {
+    private Long id;
+    private Long commentId;
+    private String content;
+    private PostDTO.AuthorDTO author;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static ReplyDTO from(ReplyView view) {
+        return ReplyDTO.builder()
+                .id(view.getId())
+                .commentId(view.getCommentId())
+                .content(view.getContent())
+                .author(PostDTO.AuthorDTO.builder()
+                        .id(view.getAuthorId())
+                        .username(view.getAuthorUsername())
+                        .fullName(view.getAuthorFullName())
+                        .avatar(view.getAuthorAvatar())
+                        .profilePictureUrl(view.getAuthorProfilePictureUrl())
+                        .build())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .build();
+    }
+}
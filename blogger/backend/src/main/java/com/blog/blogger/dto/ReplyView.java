@@ -0,0 +1,23 @@
+package com.blog.blogger.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * ReplyView - Row shape of the reply queries in ResponseRepository
+ *
+ * One flat row per reply with the author columns joined in; commentId tells
+ * batch-loaded rows apart.
+ */
+public interface ReplyView {
+    Long getId();
+    Long getCommentId();
+    String getContent();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+
+    Long getAuthorId();
+    String getAuthorUsername();
+    String getAuthorFullName();
+    String getAuthorAvatar();
+    String getAuthorProfilePictureUrl();
+}
@@ -0,0 +1,13 @@
+package com.blog.blogger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagCountDTO {
+    private String tag;
+    private int count;
+}
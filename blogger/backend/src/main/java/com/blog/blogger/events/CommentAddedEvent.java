@@ -0,0 +1,8 @@
+package com.blog.blogger.events;
+
+/**
+ * Recorded by CommentService.addComment when a comment is created.
+ */
+public record CommentAddedEvent(Long commentId, Long postId, String postTitle, Long postAuthorId,
+                                Long commenterId, String commenterUsername) {
+}
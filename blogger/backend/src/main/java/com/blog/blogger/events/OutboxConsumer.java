@@ -0,0 +1,39 @@
+package com.blog.blogger.events;
+
+import java.util.function.BiConsumer;
+
+/**
+ * An in-process receiver of outbox events of one payload type. OutboxDispatcher
+ * records each consumer's name on the event once it has accepted it, so when a
+ * sibling consumer fails only the consumers that have not succeeded see the
+ * event again. A crash between accepting and recording still redelivers, so a
+ * consumer that writes rows keys them on the event id.
+ */
+public interface OutboxConsumer<E> {
+
+    // Stored in outbox_events.delivered_to: unique among consumers and stable across releases
+    String name();
+
+    Class<E> eventType();
+
+    void accept(Long eventId, E event);
+
+    static <E> OutboxConsumer<E> of(String name, Class<E> eventType, BiConsumer<Long, E> handler) {
+        return new OutboxConsumer<>() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public Class<E> eventType() {
+                return eventType;
+            }
+
+            @Override
+            public void accept(Long eventId, E event) {
+                handler.accept(eventId, event);
+            }
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package com.blog.blogger.events;
+
+/**
+ * Recorded by PostService.createPost; consumers only see it once the post has committed.
+ */
+public record PostPublishedEvent(Long postId, String title, Long authorId, String authorUsername) {
+}
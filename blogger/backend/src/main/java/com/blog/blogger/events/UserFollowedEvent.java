@@ -0,0 +1,7 @@
+package com.blog.blogger.events;
+
+/**
+ * Recorded by SubscriptionService.followUser when a follow is created.
+ */
+public record UserFollowedEvent(Long followerId, String followerUsername, Long followingId) {
+}
@@ -1,6 +1,7 @@
 package com.blog.blogger.models;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
@@ -10,6 +11,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -19,7 +21,10 @@ import java.util.List;
 
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comments_post_created_id", columnList = "post_id, created_at, id"),
+    @Index(name = "idx_comments_post_likes_id", columnList = "post_id, like_count, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -49,8 +54,16 @@ public class Comment {
     @JsonBackReference
     private Post post;
 
+    // Kept in step by ReplyService; PostCounterReconciler repairs any drift
+    @Column(name = "reply_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int replyCount = 0;
+
+    // Not serialized: replies are paged through GET .../comments/{commentId}/replies
     @OneToMany(mappedBy = "comment", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
+    @JsonIgnore
     @Builder.Default
     private List<Response> responses = new ArrayList<>();
 
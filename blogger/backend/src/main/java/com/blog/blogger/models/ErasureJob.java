@@ -0,0 +1,98 @@
+package com.blog.blogger.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * ErasureJob - Progress of one account deletion, processed in the background
+ *
+ * The job walks through {@link Phase} in order; every chunk commits together with
+ * the job row, so after a crash the worker resumes at the stored phase.
+ */
+@Entity
+@Table(name = "erasure_jobs", indexes = {
+    @Index(name = "idx_erasure_jobs_status", columnList = "status, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ErasureJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain id, not a relation: the user row is deleted by the job itself
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "requested_by")
+    private Long requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Phase phase = Phase.NOTIFICATIONS;
+
+    @Column(name = "rows_purged")
+    @Builder.Default
+    private long rowsPurged = 0;
+
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    // Order matters: rows that reference others are removed before what they reference
+    public enum Phase {
+        NOTIFICATIONS,
+        SUBSCRIPTIONS,
+        POST_LIKES,
+        COMMENT_LIKES,
+        RESPONSES,
+        COMMENTS,
+        POSTS,
+        REPORTS,
+        USER,
+        DONE;
+
+        public Phase next() {
+            return values()[Math.min(ordinal() + 1, DONE.ordinal())];
+        }
+    }
+}
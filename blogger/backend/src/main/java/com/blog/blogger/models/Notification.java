@@ -1,5 +1,6 @@
 package com.blog.blogger.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -9,7 +10,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_notifications_event_user", columnNames = {"event_id", "user_id"})
+}, indexes = {
+    @Index(name = "idx_notifications_related_user", columnList = "related_user_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,6 +42,11 @@ public class Notification {
     @Column(name = "related_user_id")
     private Long relatedUserId; // User ID for follow notifications
 
+    // Outbox event that produced this notification, so a redelivery inserts nothing; null for direct ones
+    @JsonIgnore
+    @Column(name = "event_id")
+    private Long eventId;
+
     @Column(nullable = false)
     private Boolean isRead = false;
 
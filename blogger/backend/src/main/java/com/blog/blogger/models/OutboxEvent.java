@@ -0,0 +1,101 @@
+package com.blog.blogger.models;
+
+import com.blog.blogger.events.CommentAddedEvent;
+import com.blog.blogger.events.PostPublishedEvent;
+import com.blog.blogger.events.UserFollowedEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * OutboxEvent - A domain event stored in the same transaction as the change it describes
+ *
+ * OutboxDispatcher delivers PENDING rows to the in-process consumers and marks
+ * them DONE; a row whose delivery keeps failing is retried with backoff and
+ * ends up FAILED after outbox.max-attempts. deliveredTo lists the consumers
+ * that already accepted a retried row, so only the others see it again.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_status_available", columnList = "status, available_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    // The event record serialized as JSON
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Builder.Default
+    private int attempts = 0;
+
+    // Comma-separated OutboxConsumer names
+    @Column(name = "delivered_to", length = 512)
+    private String deliveredTo;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    // Not delivered before this time; pushed back after every failed attempt
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum Type {
+        POST_PUBLISHED(PostPublishedEvent.class),
+        USER_FOLLOWED(UserFollowedEvent.class),
+        COMMENT_ADDED(CommentAddedEvent.class);
+
+        private final Class<?> payloadType;
+
+        Type(Class<?> payloadType) {
+            this.payloadType = payloadType;
+        }
+
+        public Class<?> payloadType() {
+            return payloadType;
+        }
+
+        public static Type of(Class<?> payloadType) {
+            for (Type type : values()) {
+                if (type.payloadType.equals(payloadType)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("No outbox event type for " + payloadType.getName());
+        }
+    }
+
+    public enum Status {
+        PENDING,
+        DONE,
+        FAILED
+    }
+}
@@ -1,5 +1,6 @@
 package com.blog.blogger.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
@@ -9,7 +10,9 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -17,13 +20,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    @Index(name = "idx_posts_hidden_created_id", columnList = "is_hidden, created_at, id"),
+    @Index(name = "idx_posts_author_created_id", columnList = "author_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @ToString(exclude = { "comments" })
 @EqualsAndHashCode(exclude = { "comments" })
+@DynamicUpdate // only changed columns are written, so saving a post never overwrites comment_count
 public class Post {
 
     @Id
@@ -36,6 +43,16 @@ public class Post {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
 
+    // Derived from content on every write (PostExcerpts) so list queries never read the TEXT column
+    @Column(name = "excerpt", length = 320)
+    private String excerpt;
+
+    @Column(name = "word_count")
+    private Integer wordCount;
+
+    @Column(name = "reading_time_minutes")
+    private Integer readingTimeMinutes;
+
     // private boolean isHidden = false;
 
     @Column(name = "media_type")
@@ -53,18 +70,27 @@ public class Post {
     @Builder.Default
     private int likeCount = 0;
 
-    @Column(name = "is_hidden")
+    // Kept in step by CommentService; PostCounterReconciler repairs any drift
+    @Column(name = "comment_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int commentCount = 0;
+
+    @Column(name = "is_hidden", nullable = false)
+    @ColumnDefault("false")
     @Builder.Default
     private Boolean isHidden = false;
 
     @ElementCollection
-    @CollectionTable(name = "post_tags", joinColumns = @JoinColumn(name = "post_id"))
+    @CollectionTable(name = "post_tags", joinColumns = @JoinColumn(name = "post_id"),
+                     indexes = @Index(name = "idx_post_tags_tag_post", columnList = "tag, post_id"))
     @Column(name = "tag")
     @Builder.Default
     private List<String> tags = new ArrayList<>();
-    ////
+    // Not serialized: clients page through GET /auth/posts/{postId}/comments and use commentCount
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
+    @JsonIgnore
     @Builder.Default
     private List<Comment> comments = new ArrayList<>();
 
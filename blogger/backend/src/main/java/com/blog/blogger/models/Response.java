@@ -16,7 +16,9 @@ import java.time.LocalDateTime;
 
 
 @Entity
-@Table(name = "responses")
+@Table(name = "responses", indexes = {
+    @Index(name = "idx_responses_comment_created_id", columnList = "comment_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,6 +29,14 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     void deleteByUser(User user);
 
+    // Account erasure: chunk of notifications a user received (index on user_id) ...
+    @Query("SELECT n.id FROM Notification n WHERE n.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // ... then of the ones about them sent to others (idx_notifications_related_user)
+    @Query("SELECT n.id FROM Notification n WHERE n.relatedUserId = :userId AND n.user.id <> :userId")
+    List<Long> findIdsAboutUserSentToOthers(@Param("userId") Long userId, Pageable pageable);
+
     @Modifying
     @Query("DELETE FROM Notification n WHERE n.user = :user AND n.isRead = true")
     void deleteReadNotificationsForUser(@Param("user") User user);
@@ -1,8 +1,15 @@
 package com.blog.blogger.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.blog.blogger.models.Comment;
@@ -21,4 +28,33 @@ public interface CommentLikeRepository extends JpaRepository<CommentLike, Long>
 
       void deleteByComment(Comment comment);
     long countByComment(Comment comment);
+
+    // The unique (user_id, comment_id) constraint makes a repeated like a no-op: returns 1 only when a row was added
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO comment_likes (user_id, comment_id, created_at) VALUES (:userId, :commentId, CURRENT_TIMESTAMP)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("commentId") Long commentId);
+
+    @Modifying
+    @Query("DELETE FROM CommentLike l WHERE l.user.id = :userId AND l.comment.id = :commentId")
+    int deleteByUserIdAndCommentId(@Param("userId") Long userId, @Param("commentId") Long commentId);
+
+    @Query("SELECT l.createdAt FROM CommentLike l WHERE l.user.id = :userId AND l.comment.id = :commentId")
+    Optional<LocalDateTime> findLikedAt(@Param("userId") Long userId, @Param("commentId") Long commentId);
+
+    @Query("SELECT c.id FROM CommentLike l JOIN l.comment c WHERE l.user.id = :userId AND c.post.id = :postId AND c.id IN :commentIds")
+    List<Long> findLikedCommentIds(@Param("userId") Long userId, @Param("postId") Long postId,
+                                   @Param("commentIds") Collection<Long> commentIds);
+
+    // Chunk of a user's comment likes as [likeId, commentId, postId] rows, for account erasure
+    @Query("SELECT l.id, c.id, c.post.id FROM CommentLike l JOIN l.comment c WHERE l.user.id = :userId")
+    List<Object[]> findIdCommentIdAndPostIdByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM CommentLike l WHERE l.comment.id IN :commentIds")
+    int deleteByCommentIds(@Param("commentIds") Collection<Long> commentIds);
+
+    @Modifying
+    @Query("DELETE FROM CommentLike l WHERE l.comment.id IN (SELECT c.id FROM Comment c WHERE c.post.id IN :postIds)")
+    int deleteByPostIds(@Param("postIds") Collection<Long> postIds);
 }
@@ -1,12 +1,18 @@
 package com.blog.blogger.repository;
 
+import com.blog.blogger.dto.CommentSummaryView;
 import com.blog.blogger.models.Comment;
 import com.blog.blogger.models.Post;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +20,92 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPost(Post post);
 
     Page<Comment> findByPost(Post post, Pageable pageable);
+
+    /**
+     * Column list of the CommentSummaryView projection: author joined in the same
+     * row and the denormalized reply count instead of the responses collection.
+     */
+    String SUMMARY_SELECT = "SELECT c.id AS id, c.content AS content, c.likeCount AS likeCount, " +
+            "c.createdAt AS createdAt, c.updatedAt AS updatedAt, " +
+            "c.replyCount AS replyCount, " +
+            "a.id AS authorId, a.username AS authorUsername, a.fullName AS authorFullName, " +
+            "a.avatar AS authorAvatar, a.profilePictureUrl AS authorProfilePictureUrl " +
+            "FROM Comment c JOIN c.author a WHERE c.post.id = :postId ";
+
+    String NEWEST_FIRST = "ORDER BY c.createdAt DESC, c.id DESC";
+
+    // First page of a post's comments, seeking on idx_comments_post_created_id
+    @Query(SUMMARY_SELECT + NEWEST_FIRST)
+    List<CommentSummaryView> findSummariesByPostLatest(@Param("postId") Long postId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " + NEWEST_FIRST)
+    List<CommentSummaryView> findSummariesByPostBefore(@Param("postId") Long postId,
+                                                       @Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") Long id,
+                                                       Pageable pageable);
+
+    // Summaries of the given comments of a post, in no particular order (top-comments page)
+    @Query(SUMMARY_SELECT + "AND c.id IN :ids")
+    List<CommentSummaryView> findSummariesByPostAndIdIn(@Param("postId") Long postId,
+                                                        @Param("ids") Collection<Long> ids);
+
+    // Most liked comments of a post as [commentId, likeCount, createdAt] rows, newest first on ties;
+    // read from idx_comments_post_likes_id to warm TopCommentIndex
+    @Query("SELECT c.id, c.likeCount, c.createdAt FROM Comment c WHERE c.post.id = :postId ORDER BY c.likeCount DESC, c.id DESC")
+    List<Object[]> findMostLikedByPost(@Param("postId") Long postId, Pageable pageable);
+
+    // Newest comments of a post as [commentId, likeCount, createdAt] rows;
+    // read from idx_comments_post_created_id to warm TopCommentIndex
+    @Query("SELECT c.id, c.likeCount, c.createdAt FROM Comment c WHERE c.post.id = :postId ORDER BY c.createdAt DESC, c.id DESC")
+    List<Object[]> findNewestByPost(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("SELECT DISTINCT c.post.id FROM Comment c WHERE c.author.id = :authorId")
+    List<Long> findPostIdsCommentedBy(@Param("authorId") Long authorId);
+
+    // Chunk of a user's comments as [commentId, postId, createdAt, post createdAt] rows, for account erasure
+    @Query("SELECT c.id, c.post.id, c.createdAt, c.post.createdAt FROM Comment c WHERE c.author.id = :authorId")
+    List<Object[]> findErasureRowsByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    // [likeCount, createdAt] of the comment if it belongs to the post, else no row
+    @Query("SELECT c.likeCount, c.createdAt FROM Comment c WHERE c.id = :id AND c.post.id = :postId")
+    List<Object[]> findLikeCountAndCreatedAt(@Param("id") Long id, @Param("postId") Long postId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Comment c SET c.likeCount = (SELECT COUNT(l) FROM CommentLike l WHERE l.comment = c) WHERE c.id IN :ids")
+    int recountLikes(@Param("ids") Collection<Long> ids);
+
+    // Same as PostRepository.recountLikesBuffered for a comment
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Comment c SET c.likeCount = (SELECT COUNT(l) FROM CommentLike l WHERE l.comment = c) - :buffered " +
+           "WHERE c.id = :id AND c.likeCount <> (SELECT COUNT(l) FROM CommentLike l WHERE l.comment = c) - :buffered")
+    int recountLikesBuffered(@Param("id") Long id, @Param("buffered") long buffered);
+
+    // Drifted like counts of the comments on the given posts, except those with a buffered delta
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Comment c SET c.likeCount = (SELECT COUNT(l) FROM CommentLike l WHERE l.comment = c) " +
+           "WHERE c.post.id IN :postIds AND c.id NOT IN :excludedIds " +
+           "AND c.likeCount <> (SELECT COUNT(l) FROM CommentLike l WHERE l.comment = c)")
+    int recountLikesByPostIds(@Param("postIds") Collection<Long> postIds,
+                              @Param("excludedIds") Collection<Long> excludedIds);
+
+    // Atomic, so concurrent replies don't lose updates
+    @Modifying
+    @Query("UPDATE Comment c SET c.replyCount = c.replyCount + :delta WHERE c.id = :id")
+    int addToReplyCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Comment c SET c.replyCount = (SELECT COUNT(r) FROM Response r WHERE r.comment = c) " +
+           "WHERE c.id IN :ids AND c.replyCount <> (SELECT COUNT(r) FROM Response r WHERE r.comment = c)")
+    int recountReplies(@Param("ids") Collection<Long> ids);
+
+    // Same as recountReplies for every comment on the given posts (PostCounterReconciler)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Comment c SET c.replyCount = (SELECT COUNT(r) FROM Response r WHERE r.comment = c) " +
+           "WHERE c.post.id IN :postIds AND c.replyCount <> (SELECT COUNT(r) FROM Response r WHERE r.comment = c)")
+    int recountRepliesByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.post.id IN :postIds")
+    int deleteByPostIds(@Param("postIds") Collection<Long> postIds);
 }
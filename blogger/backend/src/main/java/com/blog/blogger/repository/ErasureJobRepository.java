@@ -0,0 +1,19 @@
+package com.blog.blogger.repository;
+
+import com.blog.blogger.models.ErasureJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ErasureJobRepository extends JpaRepository<ErasureJob, Long> {
+
+    List<ErasureJob> findByStatusInOrderByIdAsc(Collection<ErasureJob.Status> statuses);
+
+    Optional<ErasureJob> findFirstByUserIdAndStatusIn(Long userId, Collection<ErasureJob.Status> statuses);
+
+    Optional<ErasureJob> findFirstByUserIdOrderByIdDesc(Long userId);
+}
@@ -0,0 +1,34 @@
+package com.blog.blogger.repository;
+
+import com.blog.blogger.models.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Due events in insertion order, served by idx_outbox_status_available
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = com.blog.blogger.models.OutboxEvent.Status.PENDING " +
+           "AND e.availableAt <= :now ORDER BY e.id")
+    List<OutboxEvent> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(OutboxEvent.Status status);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = com.blog.blogger.models.OutboxEvent.Status.DONE, " +
+           "e.processedAt = :now WHERE e.id IN :ids")
+    int markDone(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = com.blog.blogger.models.OutboxEvent.Status.DONE " +
+           "AND e.processedAt < :cutoff")
+    int deleteDoneBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,8 +2,15 @@ package com.blog.blogger.repository;
 import com.blog.blogger.models.Post;
 import com.blog.blogger.models.PostLike;
 import com.blog.blogger.models.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,4 +33,35 @@ public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
     void deleteByUserAndPost(User user, Post post);
 
     void deleteByPost(Post post);
+
+    // The unique (user_id, post_id) constraint makes a repeated like a no-op: returns 1 only when a row was added
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO post_likes (user_id, post_id, liked_at) VALUES (:userId, :postId, CURRENT_TIMESTAMP)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    @Query("SELECT l.likedAt FROM PostLike l WHERE l.user.id = :userId AND l.post.id = :postId")
+    Optional<LocalDateTime> findLikedAt(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    @Modifying
+    @Query("DELETE FROM PostLike l WHERE l.user.id = :userId AND l.post.id = :postId")
+    int deleteByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    // Which of a page of posts the user has liked, in one IN query
+    @Query("SELECT l.post.id FROM PostLike l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    @Query("SELECT l.user.id FROM PostLike l WHERE l.post.id = :postId")
+    List<Long> findUserIdsByPostId(@Param("postId") Long postId);
+
+    @Query("SELECT DISTINCT l.post.id FROM PostLike l WHERE l.user.id = :userId")
+    List<Long> findPostIdsLikedBy(@Param("userId") Long userId);
+
+    // Chunk of a user's likes as [likeId, postId] rows, for account erasure
+    @Query("SELECT l.id, l.post.id FROM PostLike l WHERE l.user.id = :userId")
+    List<Object[]> findIdAndPostIdByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM PostLike l WHERE l.post.id IN :postIds")
+    int deleteByPostIds(@Param("postIds") Collection<Long> postIds);
 }
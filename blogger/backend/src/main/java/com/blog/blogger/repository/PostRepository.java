@@ -1,14 +1,19 @@
 package com.blog.blogger.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.blog.blogger.dto.PostSummaryView;
 import com.blog.blogger.models.Post;
 import com.blog.blogger.models.User;
 
@@ -16,15 +21,157 @@ import com.blog.blogger.models.User;
 public interface PostRepository extends JpaRepository<Post, Long> {
 
     List<Post> findByAuthor(User author);
+
+    // Everything a cached Post needs once it is detached: author and tags fetched eagerly
+    @Query("SELECT p FROM Post p JOIN FETCH p.author LEFT JOIN FETCH p.tags WHERE p.id = :id")
+    Optional<Post> findWithAuthorAndTagsById(@Param("id") Long id);
     
     List<Post> findByOrderByCreatedAtDesc();
 
     List<Post> findByAuthorIdInOrderByCreatedAtDesc(List<Long> authorIds);
 
   
-    Page<Post> findByIsHiddenFalseOrIsHiddenIsNull(Pageable pageable);
+    Page<Post> findByIsHiddenFalse(Pageable pageable);
 
    
-    @Query("SELECT p FROM Post p WHERE p.author.id IN :authorIds AND (p.isHidden = false OR p.isHidden IS NULL) ORDER BY p.createdAt DESC")
+    @Query("SELECT p FROM Post p WHERE p.author.id IN :authorIds AND p.isHidden = false ORDER BY p.createdAt DESC")
     List<Post> findNonHiddenPostsByAuthorIds(@Param("authorIds") List<Long> authorIds);
+
+    /**
+     * Column list of the PostSummaryView projection: author joined in the same row,
+     * the precomputed excerpt and reading time instead of the content, comment count
+     * read from the denormalized column.
+     */
+    String SUMMARY_SELECT = "SELECT p.id AS id, p.title AS title, p.excerpt AS excerpt, " +
+            "p.wordCount AS wordCount, p.readingTimeMinutes AS readingTimeMinutes, " +
+            "p.mediaType AS mediaType, p.mediaUrl AS mediaUrl, p.likeCount AS likeCount, " +
+            "p.commentCount AS commentCount, p.isHidden AS isHidden, " +
+            "p.createdAt AS createdAt, p.updatedAt AS updatedAt, " +
+            "a.id AS authorId, a.username AS authorUsername, a.fullName AS authorFullName, " +
+            "a.avatar AS authorAvatar, a.profilePictureUrl AS authorProfilePictureUrl " +
+            "FROM Post p JOIN p.author a ";
+
+    // is_hidden is NOT NULL (SchemaUpgrade), so this is an equality on the first column of idx_posts_hidden_created_id
+    String VISIBLE = "p.isHidden = false ";
+
+    String BEFORE_CURSOR = "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ";
+
+    String NEWEST_FIRST = "ORDER BY p.createdAt DESC, p.id DESC";
+
+    @Query(value = SUMMARY_SELECT + "WHERE " + VISIBLE + NEWEST_FIRST,
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE " + VISIBLE)
+    Page<PostSummaryView> findVisibleSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + NEWEST_FIRST,
+           countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<PostSummaryView> findAllSummaries(Pageable pageable);
+
+    // Keyset pagination: no OFFSET scan and no COUNT(*), served by idx_posts_hidden_created_id
+    @Query(SUMMARY_SELECT + "WHERE " + VISIBLE + NEWEST_FIRST)
+    List<PostSummaryView> findVisibleSummariesLatest(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE " + VISIBLE + BEFORE_CURSOR + NEWEST_FIRST)
+    List<PostSummaryView> findVisibleSummariesBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                     Pageable pageable);
+
+    // Rows of [id, createdAt], newest first
+    @Query("SELECT p.id, p.createdAt FROM Post p WHERE p.author.id IN :authorIds AND " + VISIBLE + NEWEST_FIRST)
+    List<Object[]> findVisibleIdsByAuthorIds(@Param("authorIds") List<Long> authorIds, Pageable pageable);
+
+    @Query("SELECT p.createdAt FROM Post p WHERE p.id = :id")
+    Optional<LocalDateTime> findCreatedAtById(@Param("id") Long id);
+
+    @Query(SUMMARY_SELECT + "WHERE a.id = :authorId AND " + VISIBLE + NEWEST_FIRST)
+    List<PostSummaryView> findVisibleSummariesByAuthorLatest(@Param("authorId") Long authorId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE a.id = :authorId AND " + VISIBLE + BEFORE_CURSOR + NEWEST_FIRST)
+    List<PostSummaryView> findVisibleSummariesByAuthorBefore(@Param("authorId") Long authorId,
+                                                             @Param("createdAt") LocalDateTime createdAt,
+                                                             @Param("id") Long id, Pageable pageable);
+
+    // Batched hydration of a set of ids (order is up to the caller)
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<PostSummaryView> findSummariesByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta WHERE p.id = :postId")
+    int addToCommentCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+    // Recount from the comments table, touching only rows that drifted; returns how many were fixed
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Post p SET p.commentCount = (SELECT COUNT(c) FROM Comment c WHERE c.post = p) " +
+           "WHERE p.id IN :ids AND p.commentCount <> (SELECT COUNT(c) FROM Comment c WHERE c.post = p)")
+    int recountComments(@Param("ids") List<Long> ids);
+
+    @Query("SELECT p.likeCount FROM Post p WHERE p.id = :id")
+    Optional<Integer> findLikeCountById(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Post p SET p.likeCount = (SELECT COUNT(l) FROM PostLike l WHERE l.post = p) " +
+           "WHERE p.id IN :ids AND p.likeCount <> (SELECT COUNT(l) FROM PostLike l WHERE l.post = p)")
+    int recountLikes(@Param("ids") List<Long> ids);
+
+    // like_count of a post whose delta is still buffered: row count minus that delta (LikeCounterService.recountBuffered)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Post p SET p.likeCount = (SELECT COUNT(l) FROM PostLike l WHERE l.post = p) - :buffered " +
+           "WHERE p.id = :id AND p.likeCount <> (SELECT COUNT(l) FROM PostLike l WHERE l.post = p) - :buffered")
+    int recountLikesBuffered(@Param("id") Long id, @Param("buffered") long buffered);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // [id, content] of posts written before excerpts were stored (PostExcerptBackfill)
+    @Query("SELECT p.id, p.content FROM Post p WHERE p.excerpt IS NULL AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findContentMissingExcerptAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Bulk update, so updated_at is left alone
+    @Modifying
+    @Query("UPDATE Post p SET p.excerpt = :excerpt, p.wordCount = :wordCount, " +
+           "p.readingTimeMinutes = :readingTimeMinutes WHERE p.id = :id")
+    int setExcerpt(@Param("id") Long id, @Param("excerpt") String excerpt,
+                   @Param("wordCount") int wordCount, @Param("readingTimeMinutes") int readingTimeMinutes);
+
+    @Query("SELECT p.id FROM Post p WHERE p.author.id = :authorId ORDER BY p.id")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    @Modifying
+    @Query(value = "DELETE FROM post_tags WHERE post_id IN (:postIds)", nativeQuery = true)
+    int deleteTagsByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // Last step of PostPurgeService: flushes pending changes, then clears the persistence context that may hold the deleted rows
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Post p WHERE p.id IN :postIds")
+    int deleteByIds(@Param("postIds") Collection<Long> postIds);
+
+    // Seed of the hot ranking: rows of [id, likeCount, commentCount, createdAt] for recent visible posts
+    @Query("SELECT p.id, p.likeCount, p.commentCount, p.createdAt FROM Post p WHERE " + VISIBLE +
+           "AND p.createdAt >= :since")
+    List<Object[]> findEngagementSince(@Param("since") LocalDateTime since);
+
+    // Search indexing: rows of [id, title, content, isHidden], walked by id
+    @Query("SELECT p.id, p.title, p.content, p.isHidden FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSearchableAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT p.id, p.title, p.content, p.isHidden FROM Post p " +
+           "WHERE p.updatedAt >= :since AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSearchableUpdatedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    // Tag pages, newest first by id: walks idx_post_tags_tag_post backwards from the cursor
+    @Query(SUMMARY_SELECT + "JOIN p.tags t WHERE t = :tag AND " + VISIBLE + "ORDER BY p.id DESC")
+    List<PostSummaryView> findVisibleSummariesByTagLatest(@Param("tag") String tag, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "JOIN p.tags t WHERE t = :tag AND " + VISIBLE + "AND p.id < :beforeId ORDER BY p.id DESC")
+    List<PostSummaryView> findVisibleSummariesByTagBefore(@Param("tag") String tag, @Param("beforeId") Long beforeId,
+                                                          Pageable pageable);
+
+    @Query("SELECT t, COUNT(p) FROM Post p JOIN p.tags t WHERE " + VISIBLE + "GROUP BY t")
+    List<Object[]> countVisibleTags();
+
+    @Query("SELECT t FROM Post p JOIN p.tags t WHERE p.id IN :ids AND " + VISIBLE)
+    List<String> findVisibleTagsByPostIds(@Param("ids") Collection<Long> ids);
+
+    // Tags of a whole page in one statement: rows of [postId, tag]
+    @Query("SELECT p.id, t FROM Post p JOIN p.tags t WHERE p.id IN :ids")
+    List<Object[]> findTagsByPostIds(@Param("ids") List<Long> ids);
 }
@@ -3,9 +3,14 @@ package com.blog.blogger.repository;
 import com.blog.blogger.models.Report;
 import com.blog.blogger.models.User;
 import com.blog.blogger.models.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -26,6 +31,13 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
     void deleteByPost(Post post);
 
     void deleteByReporter(User reporter);
+
+    @Query("SELECT r.id FROM Report r WHERE r.reporter.id = :reporterId")
+    List<Long> findIdsByReporterId(@Param("reporterId") Long reporterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Report r WHERE r.post.id IN :postIds")
+    int deleteByPostIds(@Param("postIds") Collection<Long> postIds);
     
     
     long countByResolvedFalse();
@@ -0,0 +1,69 @@
+package com.blog.blogger.repository;
+
+import com.blog.blogger.dto.ReplyView;
+import com.blog.blogger.models.Response;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ResponseRepository extends JpaRepository<Response, Long> {
+
+    /**
+     * Column list of the ReplyView projection: author joined in the same row.
+     * Replies read oldest first, like a conversation.
+     */
+    String REPLY_SELECT = "SELECT r.id AS id, r.comment.id AS commentId, r.content AS content, " +
+            "r.createdAt AS createdAt, r.updatedAt AS updatedAt, " +
+            "a.id AS authorId, a.username AS authorUsername, a.fullName AS authorFullName, " +
+            "a.avatar AS authorAvatar, a.profilePictureUrl AS authorProfilePictureUrl " +
+            "FROM Response r JOIN r.author a WHERE r.comment.id = :commentId ";
+
+    String OLDEST_FIRST = "ORDER BY r.createdAt ASC, r.id ASC";
+
+    @Query(REPLY_SELECT + OLDEST_FIRST)
+    List<ReplyView> findRepliesByCommentFirst(@Param("commentId") Long commentId, Pageable pageable);
+
+    @Query(REPLY_SELECT +
+           "AND (r.createdAt > :createdAt OR (r.createdAt = :createdAt AND r.id > :id)) " + OLDEST_FIRST)
+    List<ReplyView> findRepliesByCommentAfter(@Param("commentId") Long commentId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
+    /**
+     * The first :limit replies of each of the given comments in one statement:
+     * ROW_NUMBER() per comment over idx_responses_comment_created_id.
+     */
+    @Query(value = "SELECT id, commentId, content, createdAt, updatedAt, authorId, authorUsername, " +
+            "authorFullName, authorAvatar, authorProfilePictureUrl FROM (" +
+            "SELECT r.id AS id, r.comment_id AS commentId, r.content AS content, " +
+            "r.created_at AS createdAt, r.updated_at AS updatedAt, " +
+            "a.id AS authorId, a.username AS authorUsername, a.full_name AS authorFullName, " +
+            "a.avatar AS authorAvatar, a.profile_picture_url AS authorProfilePictureUrl, " +
+            "ROW_NUMBER() OVER (PARTITION BY r.comment_id ORDER BY r.created_at, r.id) AS row_pos " +
+            "FROM responses r JOIN users a ON a.id = r.author_id WHERE r.comment_id IN (:commentIds)" +
+            ") ranked WHERE row_pos <= :limit ORDER BY commentId, createdAt, id",
+           nativeQuery = true)
+    List<ReplyView> findFirstRepliesByCommentIds(@Param("commentIds") Collection<Long> commentIds,
+                                                 @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM Response r WHERE r.comment.id IN (SELECT c.id FROM Comment c WHERE c.post.id IN :postIds)")
+    int deleteByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    @Modifying
+    @Query("DELETE FROM Response r WHERE r.comment.id IN :commentIds")
+    int deleteByCommentIds(@Param("commentIds") Collection<Long> commentIds);
+
+    // Chunk of a user's replies as [responseId, commentId] rows, for account erasure
+    @Query("SELECT r.id, r.comment.id FROM Response r WHERE r.author.id = :authorId")
+    List<Object[]> findIdAndCommentIdByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+}
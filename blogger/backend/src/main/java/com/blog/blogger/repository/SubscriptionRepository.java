@@ -2,7 +2,10 @@ package com.blog.blogger.repository;
 
 import com.blog.blogger.models.Subscription;
 import com.blog.blogger.models.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,6 +18,9 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
 
     Optional<Subscription> findByFollowerAndFollowing(User follower, User following);
 
+    @Query("SELECT s.id FROM Subscription s WHERE s.follower.id = :userId OR s.following.id = :userId")
+    List<Long> findIdsInvolvingUser(@Param("userId") Long userId, Pageable pageable);
+
     List<Subscription> findByFollower(User follower);
 
     List<Subscription> findByFollowing(User following);
@@ -24,4 +30,21 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
     long countByFollowing(User following);
 
     void deleteByFollowerAndFollowing(User follower, User following);
+
+    @Query("SELECT s.follower.id FROM Subscription s WHERE s.following.id = :userId")
+    List<Long> findFollowerIdsByFollowingId(@Param("userId") Long userId);
+
+    long countByFollowingId(Long followingId);
+
+    // Keyset walk over an author's followers as rows of [followerId, isBanned], served by idx_subscriptions_following_follower
+    @Query("SELECT s.follower.id, s.follower.isBanned FROM Subscription s " +
+           "WHERE s.following.id = :userId AND s.follower.id > :afterId ORDER BY s.follower.id")
+    List<Object[]> findFollowersAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT s.following.id FROM Subscription s WHERE s.follower.id = :userId")
+    List<Long> findFollowingIdsByFollowerId(@Param("userId") Long userId);
+
+    // Rows of [authorId, followerCount] for authors with more followers than threshold
+    @Query("SELECT s.following.id, COUNT(s) FROM Subscription s GROUP BY s.following.id HAVING COUNT(s) > :threshold")
+    List<Object[]> countFollowersAbove(@Param("threshold") long threshold);
 }
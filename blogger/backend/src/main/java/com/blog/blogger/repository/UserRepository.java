@@ -1,8 +1,11 @@
 package com.blog.blogger.repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.blog.blogger.models.User;
@@ -11,4 +14,8 @@ import com.blog.blogger.models.User;
 public interface UserRepository extends JpaRepository<User, Long> {
      Optional<User> findByEmail(String email);
      Optional<User> findByUsername(String username);
+
+     // Version of a profile for conditional GETs, without loading the user
+     @Query("SELECT u.updatedAt FROM User u WHERE u.id = :id")
+     Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
 }
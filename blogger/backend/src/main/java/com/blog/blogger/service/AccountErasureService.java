@@ -0,0 +1,329 @@
+package com.blog.blogger.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.blogger.models.ErasureJob;
+import com.blog.blogger.models.ErasureJob.Phase;
+import com.blog.blogger.models.ErasureJob.Status;
+import com.blog.blogger.models.User;
+import com.blog.blogger.repositories.NotificationRepository;
+import com.blog.blogger.repository.CommentLikeRepository;
+import com.blog.blogger.repository.CommentRepository;
+import com.blog.blogger.repository.ErasureJobRepository;
+import com.blog.blogger.repository.PostLikeRepository;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.repository.ReportRepository;
+import com.blog.blogger.repository.ResponseRepository;
+import com.blog.blogger.repository.SubscriptionRepository;
+import com.blog.blogger.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * AccountErasureService - Deletes a user's data in the background
+ *
+ * A delete request bans the account and records an ErasureJob; a scheduled worker
+ * then removes the user's rows table by table (ErasureJob.Phase), each chunk an
+ * indexed lookup by user id of at most erasure.chunk-size rows followed by a
+ * delete by primary key, committed in its own short transaction together with
+ * the job's progress. A crash loses at most the chunk in flight, and the worker
+ * picks RUNNING jobs up again where they stopped. Counters of posts that lose
+ * likes or comments are recomputed chunk by chunk.
+ *
+ * Metrics:
+ * - erasure.rows.purged: rows deleted (its rate is rows purged per second)
+ * - erasure.chunk: time per chunk transaction
+ */
+@Service
+public class AccountErasureService {
+
+    private static final List<Status> ACTIVE = List.of(Status.PENDING, Status.RUNNING);
+
+    private final ErasureJobRepository erasureJobRepository;
+    private final UserRepository userRepository;
+    private final NotificationRepository notificationRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final PostLikeRepository postLikeRepository;
+    private final CommentLikeRepository commentLikeRepository;
+    private final ResponseRepository responseRepository;
+    private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
+    private final ReportRepository reportRepository;
+    private final PostPurgeService postPurgeService;
+    private final PostService postService;
+    private final PostLikerIndex postLikerIndex;
+    private final LikeCounterService likeCounterService;
+    private final CommentLikeCounterService commentLikeCounterService;
+    private final TopCommentIndex topCommentIndex;
+    private final HotPostService hotPostService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final Counter rowsPurged;
+    private final Timer chunkTimer;
+
+    public AccountErasureService(ErasureJobRepository erasureJobRepository,
+                                 UserRepository userRepository,
+                                 NotificationRepository notificationRepository,
+                                 SubscriptionRepository subscriptionRepository,
+                                 PostLikeRepository postLikeRepository,
+                                 CommentLikeRepository commentLikeRepository,
+                                 ResponseRepository responseRepository,
+                                 CommentRepository commentRepository,
+                                 PostRepository postRepository,
+                                 ReportRepository reportRepository,
+                                 PostPurgeService postPurgeService,
+                                 PostService postService,
+                                 PostLikerIndex postLikerIndex,
+                                 LikeCounterService likeCounterService,
+                                 CommentLikeCounterService commentLikeCounterService,
+                                 TopCommentIndex topCommentIndex,
+                                 HotPostService hotPostService,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${erasure.chunk-size:500}") int chunkSize,
+                                 @Value("${erasure.max-attempts:5}") int maxAttempts) {
+        this.erasureJobRepository = erasureJobRepository;
+        this.userRepository = userRepository;
+        this.notificationRepository = notificationRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.postLikeRepository = postLikeRepository;
+        this.commentLikeRepository = commentLikeRepository;
+        this.responseRepository = responseRepository;
+        this.commentRepository = commentRepository;
+        this.postRepository = postRepository;
+        this.reportRepository = reportRepository;
+        this.postPurgeService = postPurgeService;
+        this.postService = postService;
+        this.postLikerIndex = postLikerIndex;
+        this.likeCounterService = likeCounterService;
+        this.commentLikeCounterService = commentLikeCounterService;
+        this.topCommentIndex = topCommentIndex;
+        this.hotPostService = hotPostService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        this.rowsPurged = Counter.builder("erasure.rows.purged")
+                .description("Rows deleted by account erasure jobs")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("erasure.chunk")
+                .description("Duration of one account erasure chunk")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ban the user right away and queue the deletion of their data. Asking again
+     * while a job is active returns that job.
+     */
+    @Transactional
+    public ErasureJob requestErasure(Long userId, Long requestedBy) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+
+        return erasureJobRepository.findFirstByUserIdAndStatusIn(userId, ACTIVE).orElseGet(() -> {
+            user.setIsBanned(true);
+            user.setBannedAt(LocalDateTime.now());
+            userRepository.save(user);
+
+            return erasureJobRepository.save(ErasureJob.builder()
+                    .userId(userId)
+                    .requestedBy(requestedBy)
+                    .build());
+        });
+    }
+
+    public ErasureJob getJob(Long jobId) {
+        return erasureJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Erasure job not found with id: " + jobId));
+    }
+
+    public ErasureJob getLatestJobForUser(Long userId) {
+        return erasureJobRepository.findFirstByUserIdOrderByIdDesc(userId)
+                .orElseThrow(() -> new RuntimeException("No erasure job for user id: " + userId));
+    }
+
+    @Scheduled(fixedDelayString = "${erasure.poll-ms:2000}")
+    public void runPendingJobs() {
+        for (ErasureJob job : erasureJobRepository.findByStatusInOrderByIdAsc(ACTIVE)) {
+            run(job.getId());
+        }
+    }
+
+    private void run(Long jobId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ErasureJob job = getJob(jobId);
+                job.setStatus(Status.RUNNING);
+                if (job.getStartedAt() == null) {
+                    job.setStartedAt(LocalDateTime.now());
+                }
+            });
+
+            Chunk chunk;
+            do {
+                chunk = chunkTimer.record(() -> transactionTemplate.execute(status -> step(jobId)));
+                if (chunk != null) {
+                    rowsPurged.increment(chunk.rows());
+                    chunk.changedPosts().forEach(postService::evictPost);
+                    chunk.unlikedPosts().forEach(postLikerIndex::invalidate);
+                    chunk.rerankedPosts().forEach(topCommentIndex::invalidate);
+                }
+            } while (chunk != null && !chunk.finished());
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> {
+                ErasureJob job = getJob(jobId);
+                job.setAttempts(job.getAttempts() + 1);
+                job.setLastError(e.getMessage());
+                if (job.getAttempts() >= maxAttempts) {
+                    job.setStatus(Status.FAILED);
+                }
+            });
+        }
+    }
+
+    /**
+     * @param rows          rows deleted by the chunk
+     * @param finished      the job reached Phase.DONE
+     * @param changedPosts  posts whose cached copy is now stale
+     * @param unlikedPosts  posts whose liker set lost this user
+     * @param rerankedPosts posts whose comment ranking lost comments or comment likes
+     */
+    private record Chunk(int rows, boolean finished, Set<Long> changedPosts, Set<Long> unlikedPosts,
+                         Set<Long> rerankedPosts) {
+    }
+
+    // One chunk of the current phase plus the job's progress, in a single transaction
+    private Chunk step(Long jobId) {
+        ErasureJob job = getJob(jobId);
+        if (job.getPhase() == Phase.DONE) {
+            return null;
+        }
+
+        Long userId = job.getUserId();
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        Set<Long> changedPosts = new HashSet<>();
+        Set<Long> unlikedPosts = new HashSet<>();
+        Set<Long> rerankedPosts = new HashSet<>();
+        int fetched;
+        int rows;
+
+        switch (job.getPhase()) {
+            case NOTIFICATIONS -> {
+                // Two indexed lookups instead of one OR across user_id and related_user_id
+                List<Long> ids = new ArrayList<>(notificationRepository.findIdsByUserId(userId, chunk));
+                if (ids.size() < chunkSize) {
+                    ids.addAll(notificationRepository.findIdsAboutUserSentToOthers(userId,
+                            PageRequest.of(0, chunkSize - ids.size())));
+                }
+                notificationRepository.deleteAllByIdInBatch(ids);
+                fetched = rows = ids.size();
+            }
+            case SUBSCRIPTIONS -> {
+                List<Long> ids = subscriptionRepository.findIdsInvolvingUser(userId, chunk);
+                subscriptionRepository.deleteAllByIdInBatch(ids);
+                fetched = rows = ids.size();
+            }
+            case POST_LIKES -> {
+                List<Object[]> likes = postLikeRepository.findIdAndPostIdByUserId(userId, chunk);
+                List<Long> ids = likes.stream().map(row -> (Long) row[0]).toList();
+                likes.forEach(row -> unlikedPosts.add((Long) row[1]));
+                postLikeRepository.deleteAllByIdInBatch(ids);
+                // Posts with a buffered delta are left to the reconciler
+                List<Long> settled = unlikedPosts.stream().filter(id -> !likeCounterService.hasPending(id)).toList();
+                if (!settled.isEmpty()) {
+                    postRepository.recountLikes(settled);
+                }
+                changedPosts.addAll(unlikedPosts);
+                fetched = rows = ids.size();
+            }
+            case COMMENT_LIKES -> {
+                List<Object[]> likes = commentLikeRepository.findIdCommentIdAndPostIdByUserId(userId, chunk);
+                List<Long> ids = likes.stream().map(row -> (Long) row[0]).toList();
+                Set<Long> commentIds = new HashSet<>();
+                likes.forEach(row -> commentIds.add((Long) row[1]));
+                likes.forEach(row -> rerankedPosts.add((Long) row[2]));
+                commentLikeRepository.deleteAllByIdInBatch(ids);
+                // Comments with a buffered delta are left to the reconciler
+                List<Long> settledComments = commentIds.stream()
+                        .filter(id -> !commentLikeCounterService.hasPending(id)).toList();
+                if (!settledComments.isEmpty()) {
+                    commentRepository.recountLikes(settledComments);
+                }
+                fetched = rows = ids.size();
+            }
+            case RESPONSES -> {
+                List<Object[]> replies = responseRepository.findIdAndCommentIdByAuthorId(userId, chunk);
+                List<Long> ids = replies.stream().map(row -> (Long) row[0]).toList();
+                Set<Long> commentIds = new HashSet<>();
+                replies.forEach(row -> commentIds.add((Long) row[1]));
+                responseRepository.deleteAllByIdInBatch(ids);
+                if (!commentIds.isEmpty()) {
+                    commentRepository.recountReplies(commentIds);
+                }
+                fetched = rows = ids.size();
+            }
+            case COMMENTS -> {
+                List<Object[]> comments = commentRepository.findErasureRowsByAuthorId(userId, chunk);
+                List<Long> ids = comments.stream().map(row -> (Long) row[0]).toList();
+                comments.forEach(row -> changedPosts.add((Long) row[1]));
+                comments.forEach(row -> hotPostService.recordCommentRemovedAfterCommit(
+                        (Long) row[1], (LocalDateTime) row[3], (LocalDateTime) row[2]));
+                rerankedPosts.addAll(changedPosts);
+                fetched = ids.size();
+                rows = ids.size();
+                if (!ids.isEmpty()) {
+                    rows += responseRepository.deleteByCommentIds(ids);
+                    rows += commentLikeRepository.deleteByCommentIds(ids);
+                    commentRepository.deleteAllByIdInBatch(ids);
+                    postRepository.recountComments(List.copyOf(changedPosts));
+                }
+            }
+            case POSTS -> {
+                List<Long> ids = postRepository.findIdsByAuthorId(userId, chunk);
+                fetched = ids.size();
+                rows = postPurgeService.purge(ids);
+                changedPosts.addAll(ids);
+                unlikedPosts.addAll(ids);
+            }
+            case REPORTS -> {
+                List<Long> ids = reportRepository.findIdsByReporterId(userId, chunk);
+                reportRepository.deleteAllByIdInBatch(ids);
+                fetched = rows = ids.size();
+            }
+            case USER -> {
+                rows = userRepository.existsById(userId) ? 1 : 0;
+                userRepository.deleteAllByIdInBatch(List.of(userId));
+                fetched = 0;
+            }
+            default -> throw new IllegalStateException("Unexpected phase " + job.getPhase());
+        }
+
+        // A short chunk means the phase has nothing left
+        if (fetched < chunkSize) {
+            job.setPhase(job.getPhase().next());
+        }
+        job.setRowsPurged(job.getRowsPurged() + rows);
+        if (job.getPhase() == Phase.DONE) {
+            job.setStatus(Status.COMPLETED);
+            job.setCompletedAt(LocalDateTime.now());
+        }
+        // The POSTS phase clears the persistence context, so the job is saved (merged) explicitly
+        erasureJobRepository.save(job);
+        return new Chunk(rows, job.getPhase() == Phase.DONE, changedPosts, unlikedPosts, rerankedPosts);
+    }
+}
@@ -3,18 +3,16 @@ package com.blog.blogger.service;
 import java.time.LocalDateTime;
 import java.util.List;
 
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import com.blog.blogger.dto.AdminStatsDTO;
+import com.blog.blogger.dto.ErasureJobDTO;
+import com.blog.blogger.dto.PostDTO;
 import com.blog.blogger.dto.UserProfileDTO;
-import com.blog.blogger.models.Post;
 import com.blog.blogger.models.Role;
 import com.blog.blogger.repository.PostRepository;
 import com.blog.blogger.repository.UserRepository;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 
 @Service
 public class AdminService {
@@ -85,8 +83,12 @@ public class AdminService {
         userService.changeUserRole(userId, newRole);
     }
 
-    public void deleteUser(Long userId) {
-        userService.deleteUser(userId);
+    public ErasureJobDTO deleteUser(Long userId, Long adminId) {
+        return ErasureJobDTO.from(userService.deleteUser(userId, adminId));
+    }
+
+    public ErasureJobDTO getErasureJob(Long jobId) {
+        return ErasureJobDTO.from(userService.getErasureJob(jobId));
     }
 
     public List<com.blog.blogger.models.Post> getAllPosts() {
@@ -105,9 +107,8 @@ public class AdminService {
         postService.unhidePost(postId);
     }
 
-    public Page<Post> getAllPosts(int page, int size) {
-        Pageable pageable = PageRequest.of(page - 1, size, Sort.by("createdAt").descending());
-        return postRepository.findAll(pageable);
+    public Page<PostDTO> getAllPosts(int page, int size) {
+        return postService.getAllPostsIncludingHidden(page, size);
     }
 
 }
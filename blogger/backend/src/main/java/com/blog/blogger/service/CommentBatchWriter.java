@@ -0,0 +1,284 @@
+package com.blog.blogger.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.models.Comment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * CommentBatchWriter - Group commit of new comments
+ *
+ * When one post gets hundreds of comments per second, a transaction per comment
+ * means an insert, an outbox insert and an update of the same posts row each
+ * time, all queued on that row's lock. Requests instead hand their comment to
+ * one of comments.batch.writers writer threads, chosen by post id so that a
+ * post's row is only ever updated by one writer. A writer gathers whatever
+ * arrives within comments.batch.max-delay-ms (at most comments.batch.max-size
+ * comments) and writes it with CommentService.addComments in one transaction.
+ * A request returns once the batch holding its comment has committed.
+ *
+ * If a batch fails, its comments are written again one at a time, so a bad row
+ * fails only its own request. With comments.batch.enabled=false, or when
+ * comments.batch.queue-capacity comments are already waiting for the writer,
+ * a comment is written directly on the request thread. So is a comment the
+ * writer has not picked up within comments.batch.timeout-ms; each comment is
+ * claimed by either the writer or the request, never both. Comments still
+ * queued when the writers stop are failed rather than left waiting.
+ *
+ * Metrics:
+ * - comments.batch.size: comments per committed batch
+ * - comments.batch.commit: time to write and commit one batch
+ * - comments.batch.queued: comments waiting for the writers
+ * - comments.batch.fallbacks: comments written on the request thread after a timeout
+ */
+@Service
+public class CommentBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentBatchWriter.class);
+
+    private static final class Pending {
+        private final Comment comment;
+        private final CompletableFuture<Comment> result = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Pending(Comment comment) {
+            this.comment = comment;
+        }
+
+        // Only the first of writer, request thread and shutdown to claim a comment handles it
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    private final CommentService commentService;
+    private final List<Shard> shards = new ArrayList<>();
+    private final boolean enabled;
+    private final int maxSize;
+    private final long maxDelayNanos;
+    private final long timeoutMs;
+    private final DistributionSummary batchSize;
+    private final Timer commitTimer;
+    private final Counter fallbacks;
+    private volatile boolean running;
+
+    public CommentBatchWriter(CommentService commentService,
+                              MeterRegistry meterRegistry,
+                              @Value("${comments.batch.enabled:true}") boolean enabled,
+                              @Value("${comments.batch.writers:4}") int writers,
+                              @Value("${comments.batch.max-size:200}") int maxSize,
+                              @Value("${comments.batch.max-delay-ms:5}") long maxDelayMs,
+                              @Value("${comments.batch.queue-capacity:10000}") int queueCapacity,
+                              @Value("${comments.batch.timeout-ms:2000}") long timeoutMs) {
+        this.commentService = commentService;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.timeoutMs = timeoutMs;
+        // The capacity is shared out so the total waiting stays at queue-capacity
+        int shardCapacity = Math.max(1, queueCapacity / Math.max(1, writers));
+        for (int i = 0; i < Math.max(1, writers); i++) {
+            shards.add(new Shard(i, shardCapacity));
+        }
+
+        Gauge.builder("comments.batch.queued", shards, all -> all.stream().mapToInt(shard -> shard.queue.size()).sum())
+                .description("Comments waiting for the batch writers")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("comments.batch.size")
+                .description("Comments written per batch transaction")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("comments.batch.commit")
+                .description("Time to write and commit one batch of comments")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("comments.batch.fallbacks")
+                .description("Comments written on the request thread because the writer did not pick them up in time")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        shards.forEach(Shard::start);
+    }
+
+    // Comments already queued are still written before the writers stop; those left after 10 s are failed
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (Shard shard : shards) {
+            shard.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+        for (Shard shard : shards) {
+            List<Pending> left = new ArrayList<>();
+            shard.queue.drainTo(left);
+            for (Pending pending : left) {
+                if (pending.claim()) {
+                    pending.result.completeExceptionally(new IllegalStateException("Comment writer stopped"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Persist a new comment, blocking until it is committed.
+     *
+     * @return the comment with its generated id
+     */
+    public Comment write(Comment comment) {
+        Pending pending = new Pending(comment);
+        if (!running || !shardFor(comment).queue.offer(pending)) {
+            return commentService.addComment(comment);
+        }
+        try {
+            try {
+                return pending.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pending.claim()) {
+                    // Not picked up by the writer: it will skip the comment, so write it here
+                    fallbacks.increment();
+                    return commentService.addComment(comment);
+                }
+                // The writer has it in a batch being committed
+                return pending.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Failed to write comment", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out writing comment");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while writing comment");
+        }
+    }
+
+    private Shard shardFor(Comment comment) {
+        Long postId = comment.getPost() != null ? comment.getPost().getId() : null;
+        return shards.get(postId == null ? 0 : (int) Math.floorMod(postId, (long) shards.size()));
+    }
+
+    private final class Shard {
+        private final int index;
+        private final BlockingQueue<Pending> queue;
+        private Thread thread;
+
+        private Shard(int index, int capacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void start() {
+            thread = new Thread(this::run, "comment-batch-writer-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void join(long millis) throws InterruptedException {
+            if (thread != null) {
+                thread.join(millis);
+            }
+        }
+
+        private void run() {
+            List<Pending> batch = new ArrayList<>(maxSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    collect(batch);
+                } catch (InterruptedException e) {
+                    running = false;
+                }
+                writeClaimed(batch);
+            }
+            // Offered while stopping
+            queue.drainTo(batch);
+            writeClaimed(batch);
+        }
+
+        // Wait for a first comment, then take what arrives until the batch is full or max-delay-ms is up
+        private void collect(List<Pending> batch) throws InterruptedException {
+            Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return;
+            }
+            batch.add(first);
+            long deadline = System.nanoTime() + maxDelayNanos;
+            while (batch.size() < maxSize) {
+                queue.drainTo(batch, maxSize - batch.size());
+                long left = deadline - System.nanoTime();
+                if (batch.size() >= maxSize || left <= 0) {
+                    return;
+                }
+                Pending next = queue.poll(left, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            }
+        }
+
+        // Comments whose request already timed out and wrote them itself are left out
+        private void writeClaimed(List<Pending> batch) {
+            batch.removeIf(pending -> !pending.claim());
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Comment> comments = batch.stream().map(pending -> pending.comment).toList();
+        try {
+            commitTimer.record(() -> commentService.addComments(comments));
+            batchSize.record(batch.size());
+            batch.forEach(pending -> pending.result.complete(pending.comment));
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            log.warn("Batch of {} comments failed, writing them one at a time: {}", batch.size(), e.getMessage());
+        } catch (Throwable e) {
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+            return;
+        }
+
+        for (Pending pending : batch) {
+            Comment comment = pending.comment;
+            // Ids assigned before the rollback don't exist
+            comment.setId(null);
+            try {
+                pending.result.complete(commentService.addComment(comment));
+            } catch (RuntimeException e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+}
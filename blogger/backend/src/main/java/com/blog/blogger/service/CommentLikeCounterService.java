@@ -0,0 +1,74 @@
+package com.blog.blogger.service;
+
+import java.util.Set;
+import java.util.function.LongToIntFunction;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * CommentLikeCounterService - Write-behind aggregation of comments.like_count
+ *
+ * Buffers the +1/-1 of each committed comment like or unlike and writes them
+ * every likes.flush-ms in one batch (LikeCountFlusher), so likers of a popular
+ * comment never wait on its row lock.
+ *
+ * Metrics:
+ * - likes.pending.comments: comments with an unflushed delta
+ * - likes.flush.comments: comments written per flush
+ */
+@Service
+public class CommentLikeCounterService {
+
+    private final LikeCountFlusher likeCounts;
+
+    public CommentLikeCounterService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry) {
+        this.likeCounts = new LikeCountFlusher("comments", jdbcTemplate, transactionManager, meterRegistry);
+    }
+
+    /**
+     * Buffer a like-count change once the transaction that inserted or deleted the
+     * comment_likes row commits.
+     */
+    public void addAfterCommit(Long commentId, int delta) {
+        likeCounts.addAfterCommit(commentId, delta);
+    }
+
+    /**
+     * Delta not yet written to comments.like_count, to add to a value read from the database.
+     */
+    public long pending(Long commentId) {
+        return likeCounts.pending(commentId);
+    }
+
+    public boolean hasPending(Long commentId) {
+        return likeCounts.hasPending(commentId);
+    }
+
+    public Set<Long> pendingIds() {
+        return likeCounts.pendingIds();
+    }
+
+    /**
+     * See {@link LikeCountFlusher#recountBuffered}.
+     */
+    public int recountBuffered(Long commentId, LongToIntFunction recount) {
+        return likeCounts.recountBuffered(commentId, recount);
+    }
+
+    @Scheduled(fixedDelayString = "${likes.flush-ms:1000}")
+    public void flush() {
+        likeCounts.flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
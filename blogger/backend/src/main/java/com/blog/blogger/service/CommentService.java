@@ -1,31 +1,82 @@
 package com.blog.blogger.service;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.blog.blogger.dto.CommentDTO;
+import com.blog.blogger.dto.CommentSummaryView;
+import com.blog.blogger.dto.CursorPage;
+import com.blog.blogger.dto.ReplyDTO;
+import com.blog.blogger.events.CommentAddedEvent;
 import com.blog.blogger.models.Comment;
-import com.blog.blogger.models.CommentLike;
 import com.blog.blogger.models.Post;
 import com.blog.blogger.models.User;
 import com.blog.blogger.repository.CommentLikeRepository;
 import com.blog.blogger.repository.CommentRepository;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.utils.KeysetCursor;
+
+import jakarta.validation.ValidationException;
 
 
 @Service
 public class CommentService {
 
+    private static final int MAX_BATCH_IDS = 100;
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private static final String INSERT_COMMENT =
+            "INSERT INTO comments (author_id, post_id, content, like_count, reply_count, created_at, updated_at) " +
+            "VALUES (?, ?, ?, 0, 0, ?, ?)";
+
     private final CommentRepository commentRepository;
     private final CommentLikeRepository commentLikeRepository;
+    private final PostRepository postRepository;
+    private final PostService postService;
+    private final OutboxService outboxService;
+    private final ReplyService replyService;
+    private final CommentLikeCounterService commentLikeCounterService;
+    private final TopCommentIndex topCommentIndex;
+    private final HotPostService hotPostService;
+    private final JdbcTemplate jdbcTemplate;
 
-    public CommentService(CommentRepository commentRepository, CommentLikeRepository commentLikeRepository) {
+    public CommentService(CommentRepository commentRepository, CommentLikeRepository commentLikeRepository,
+                          PostRepository postRepository, PostService postService, OutboxService outboxService,
+                          ReplyService replyService, CommentLikeCounterService commentLikeCounterService,
+                          TopCommentIndex topCommentIndex, HotPostService hotPostService,
+                          JdbcTemplate jdbcTemplate) {
         this.commentRepository = commentRepository;
         this.commentLikeRepository = commentLikeRepository;
+        this.postRepository = postRepository;
+        this.postService = postService;
+        this.outboxService = outboxService;
+        this.replyService = replyService;
+        this.commentLikeCounterService = commentLikeCounterService;
+        this.topCommentIndex = topCommentIndex;
+        this.hotPostService = hotPostService;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
      // ADD THIS METHOD: Get comment by ID
@@ -33,8 +84,81 @@ public class CommentService {
         return commentRepository.findById(commentId);
     }
 
+    @Transactional
     public Comment addComment(Comment comment) {
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        // Atomic increment in the same transaction, so concurrent comments don't lose updates
+        postRepository.addToCommentCount(saved.getPost().getId(), 1);
+        postService.evictPost(saved.getPost().getId());
+        topCommentIndex.addAfterCommit(saved.getPost().getId(), saved.getId());
+
+        Post post = saved.getPost();
+        User author = saved.getAuthor();
+        outboxService.record(new CommentAddedEvent(saved.getId(), post.getId(), post.getTitle(),
+                post.getAuthor().getId(), author.getId(), author.getUsername()));
+        return saved;
+    }
+
+    /**
+     * Group-commit form of {@link #addComment}, called by CommentBatchWriter: the
+     * comments go in as one JDBC batch (a single multi-row INSERT with
+     * rewriteBatchedStatements), each post's comment_count is updated once for all
+     * of its comments, and the COMMENT_ADDED events are written as one batch too.
+     * The comments get their generated ids and timestamps.
+     */
+    @Transactional
+    public List<Comment> addComments(List<Comment> comments) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = insertComments(comments, Timestamp.valueOf(now));
+
+        Map<Long, Integer> addedPerPost = new LinkedHashMap<>();
+        List<CommentAddedEvent> events = new ArrayList<>(comments.size());
+        for (int i = 0; i < comments.size(); i++) {
+            Comment comment = comments.get(i);
+            comment.setId(ids.get(i));
+            comment.setCreatedAt(now);
+            comment.setUpdatedAt(now);
+
+            Post post = comment.getPost();
+            User author = comment.getAuthor();
+            addedPerPost.merge(post.getId(), 1, Integer::sum);
+            topCommentIndex.addAfterCommit(post.getId(), comment.getId());
+            events.add(new CommentAddedEvent(comment.getId(), post.getId(), post.getTitle(),
+                    post.getAuthor().getId(), author.getId(), author.getUsername()));
+        }
+        addedPerPost.forEach((postId, added) -> {
+            postRepository.addToCommentCount(postId, added);
+            postService.evictPost(postId);
+        });
+        outboxService.recordAll(events);
+        return comments;
+    }
+
+    private List<Long> insertComments(List<Comment> comments, Timestamp now) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_COMMENT, Statement.RETURN_GENERATED_KEYS)) {
+                for (Comment comment : comments) {
+                    ps.setLong(1, comment.getAuthor().getId());
+                    ps.setLong(2, comment.getPost().getId());
+                    ps.setString(3, comment.getContent());
+                    ps.setTimestamp(4, now);
+                    ps.setTimestamp(5, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(comments.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                if (ids.size() != comments.size()) {
+                    throw new IllegalStateException("Expected " + comments.size() + " comment ids, got " + ids.size());
+                }
+                return ids;
+            }
+        });
     }
 
     public Page<Comment> getCommentsByPost(Post post, int page, int size) {
@@ -42,6 +166,68 @@ public class CommentService {
         return commentRepository.findByPost(post, pageable);
     }
 
+    /**
+     * Cursor mode of a post's comments, newest first: seeks past the (createdAt, id)
+     * of the previous page and fetches one extra row to know whether there is a next page.
+     * Each comment carries its first replies (see ReplyService).
+     */
+    public CursorPage<CommentDTO> getCommentsByCursor(Long postId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, limit + 1);
+
+        List<CommentSummaryView> comments = position == null
+                ? commentRepository.findSummariesByPostLatest(postId, pageable)
+                : commentRepository.findSummariesByPostBefore(postId, position.createdAt(), position.id(), pageable);
+
+        String next = null;
+        if (comments.size() > limit) {
+            comments = comments.subList(0, limit);
+            CommentSummaryView last = comments.get(limit - 1);
+            next = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<CommentDTO> items = comments.stream().map(CommentDTO::from).toList();
+        inlineFirstReplies(items);
+        return new CursorPage<>(items, next);
+    }
+
+    /**
+     * "Top" ordering of a post's comments: most liked first, recent likes counting
+     * more. The ranking lives in TopCommentIndex; this only hydrates one page of
+     * ids, so deep pages end at comments.top.tracked comments.
+     */
+    public Slice<CommentDTO> getTopComments(Long postId, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        int limit = pageable.getPageSize();
+        List<Long> ids = topCommentIndex.topIds(postId, (int) pageable.getOffset(), limit + 1);
+        boolean hasNext = ids.size() > limit;
+        if (hasNext) {
+            ids = ids.subList(0, limit);
+        }
+
+        Map<Long, CommentSummaryView> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (CommentSummaryView summary : commentRepository.findSummariesByPostAndIdIn(postId, ids)) {
+                byId.put(summary.getId(), summary);
+            }
+        }
+        List<CommentDTO> items = ids.stream().filter(byId::containsKey).map(id -> {
+            CommentDTO comment = CommentDTO.from(byId.get(id));
+            // Same count the ranking used, including likes not yet flushed
+            comment.setLikeCount((int) Math.max(0, comment.getLikeCount() + commentLikeCounterService.pending(id)));
+            return comment;
+        }).toList();
+        inlineFirstReplies(items);
+        return new SliceImpl<>(items, pageable, hasNext);
+    }
+
+    // First replies of every comment on the page, from one query
+    private void inlineFirstReplies(List<CommentDTO> items) {
+        List<Long> withReplies = items.stream().filter(c -> c.getReplyCount() > 0).map(CommentDTO::getId).toList();
+        Map<Long, List<ReplyDTO>> replies = replyService.getFirstReplies(withReplies);
+        items.forEach(c -> c.setReplies(replies.getOrDefault(c.getId(), List.of())));
+    }
+
     // ADD THIS METHOD: Delete a comment
     @Transactional
     public void deleteComment(Long commentId) {
@@ -53,45 +239,74 @@ public class CommentService {
         
         // Then delete the comment
         commentRepository.delete(comment);
+        postRepository.addToCommentCount(comment.getPost().getId(), -1);
+        postService.evictPost(comment.getPost().getId());
+        topCommentIndex.removeAfterCommit(comment.getPost().getId(), commentId);
+        hotPostService.recordCommentRemovedAfterCommit(comment.getPost().getId(), comment.getPost().getCreatedAt(),
+                comment.getCreatedAt());
     }
     
+    /**
+     * Like a comment. Only the comment_likes row is written here; the like_count
+     * change is buffered by CommentLikeCounterService and flushed in batches.
+     *
+     * @return the like count including changes not yet flushed
+     */
     @Transactional
-    public Comment likeComment(Long commentId, User user) {
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new RuntimeException("Comment not found"));
-
-        if (commentLikeRepository.existsByUserAndComment(user, comment)) {
-            return comment; 
+    public long likeComment(Long postId, Long commentId, User user) {
+        LikeState current = likeState(postId, commentId);
+        if (commentLikeRepository.insertIfAbsent(user.getId(), commentId) == 1) {
+            commentLikeCounterService.addAfterCommit(commentId, 1);
+            topCommentIndex.likeAfterCommit(postId, commentId, current.createdAt(), current.likeCount() + 1);
+            return current.likeCount() + 1;
         }
-
-        CommentLike like = CommentLike.builder()
-                .user(user)
-                .comment(comment)
-                .build();
-        commentLikeRepository.save(like);
-
-        comment.setLikeCount(comment.getLikeCount() + 1);
-        return commentRepository.save(comment);
+        return current.likeCount();
     }
 
-    
     @Transactional
-    public Comment unlikeComment(Long commentId, User user) {
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new RuntimeException("Comment not found"));
-
-        Optional<CommentLike> likeOpt = commentLikeRepository.findByUserAndComment(user, comment);
-        if (likeOpt.isEmpty()) {
-            return comment; 
+    public long unlikeComment(Long postId, Long commentId, User user) {
+        LikeState current = likeState(postId, commentId);
+        // The ranking takes back the like's weight at the time it was made
+        Optional<LocalDateTime> likedAt = commentLikeRepository.findLikedAt(user.getId(), commentId);
+        if (likedAt.isPresent() && commentLikeRepository.deleteByUserIdAndCommentId(user.getId(), commentId) == 1) {
+            long remaining = Math.max(0, current.likeCount() - 1);
+            commentLikeCounterService.addAfterCommit(commentId, -1);
+            topCommentIndex.unlikeAfterCommit(postId, commentId, current.createdAt(), likedAt.get(), remaining);
+            return remaining;
         }
+        return current.likeCount();
+    }
+
+    // Like count including changes not yet flushed, and creation time, of one comment
+    private record LikeState(long likeCount, LocalDateTime createdAt) {
+    }
 
-        commentLikeRepository.delete(likeOpt.get());
+    // Also checks that the comment belongs to the post the ranking is updated for
+    private LikeState likeState(Long postId, Long commentId) {
+        List<Object[]> rows = commentRepository.findLikeCountAndCreatedAt(commentId, postId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Comment not found");
+        }
+        long stored = ((Number) rows.get(0)[0]).longValue();
+        return new LikeState(Math.max(0, stored + commentLikeCounterService.pending(commentId)),
+                (LocalDateTime) rows.get(0)[1]);
+    }
 
-        comment.setLikeCount(Math.max(0, comment.getLikeCount() - 1));
-        return commentRepository.save(comment);
+    /**
+     * Batch form of {@link #hasUserLikedComment}: which of the given comments the
+     * user has liked, in a single IN query.
+     */
+    public Set<Long> getLikedCommentIds(User user, Long postId, List<Long> commentIds) {
+        if (commentIds.size() > MAX_BATCH_IDS) {
+            throw new ValidationException("At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        // Anonymous viewers have liked nothing
+        if (user == null || commentIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(commentLikeRepository.findLikedCommentIds(user.getId(), postId, commentIds));
     }
 
-    
     public boolean hasUserLikedComment(Long commentId, User user) {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
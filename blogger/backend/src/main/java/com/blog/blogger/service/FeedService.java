@@ -0,0 +1,214 @@
+package com.blog.blogger.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.dto.CursorPage;
+import com.blog.blogger.dto.PostSummaryView;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.repository.SubscriptionRepository;
+import com.blog.blogger.utils.AfterCommit;
+import com.blog.blogger.utils.KWayMerge;
+import com.blog.blogger.utils.KeysetCursor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * FeedService - Hybrid push/pull engine behind /auth/posts/following
+ *
+ * Posts of normal authors are pushed into their followers' timelines when they
+ * are created (TimelineService). Authors with more followers than
+ * feed.fanout.follower-threshold are never pushed: their posts are pulled at
+ * read time, one indexed query per such author the reader follows, and merged
+ * with the timeline by (createdAt, id).
+ *
+ * The follower counts of pulled authors are kept in memory: loaded at startup,
+ * then moved by follows and unfollows. An author is promoted when they post
+ * with more followers than the threshold (NewPostFanOut counts them then), and
+ * demoted as soon as an unfollow takes them back to it; only the timelines of
+ * that author's followers are then rebuilt, since they lack the posts that were
+ * never pushed. Counts are reloaded every feed.pull.refresh-ms to correct drift
+ * from bulk deletes such as account erasure.
+ *
+ * Metrics:
+ * - feed.fanout.follower.threshold: the configured threshold
+ * - feed.pulled.authors: authors currently served by pull
+ * - feed.merge.streams / feed.merge.cost: sources merged and heap operations per read
+ */
+@Service
+public class FeedService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private static final Comparator<PostSummaryView> NEWEST_FIRST =
+            Comparator.comparing(PostSummaryView::getCreatedAt).thenComparing(PostSummaryView::getId).reversed();
+
+    private final TimelineService timelineService;
+    private final PostRepository postRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final int followerThreshold;
+    // Pulled author id -> follower count
+    private final Map<Long, Long> pulledAuthors = new ConcurrentHashMap<>();
+    private final DistributionSummary mergeStreams;
+    private final DistributionSummary mergeCost;
+
+    public FeedService(TimelineService timelineService,
+                       PostRepository postRepository,
+                       SubscriptionRepository subscriptionRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${feed.fanout.follower-threshold:10000}") int followerThreshold) {
+        this.timelineService = timelineService;
+        this.postRepository = postRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.followerThreshold = followerThreshold;
+
+        Gauge.builder("feed.fanout.follower.threshold", () -> followerThreshold)
+                .description("Follower count above which an author's posts are pulled instead of pushed")
+                .register(meterRegistry);
+        Gauge.builder("feed.pulled.authors", pulledAuthors, Map::size)
+                .description("Authors whose posts are merged in at read time")
+                .register(meterRegistry);
+        this.mergeStreams = DistributionSummary.builder("feed.merge.streams")
+                .description("Sorted sources merged per following-feed read")
+                .register(meterRegistry);
+        this.mergeCost = DistributionSummary.builder("feed.merge.cost")
+                .description("Heap operations spent merging one following-feed page")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a new post by this author is pushed to timelines; an author seen
+     * above the threshold is switched to pull right away.
+     */
+    public boolean pushesPostsOf(Long authorId, long followerCount) {
+        if (followerCount > followerThreshold) {
+            pulledAuthors.put(authorId, followerCount);
+        }
+        return !pulledAuthors.containsKey(authorId);
+    }
+
+    /**
+     * Count a new follower of a pulled author once the follow commits. Authors
+     * who are pushed are not counted here: they are promoted when they next post.
+     */
+    public void followerAddedAfterCommit(Long authorId) {
+        AfterCommit.run(() -> pulledAuthors.computeIfPresent(authorId, (id, count) -> count + 1));
+    }
+
+    /**
+     * Count a lost follower of a pulled author once the unfollow commits,
+     * demoting the author when that takes them back to the threshold.
+     */
+    public void followerRemovedAfterCommit(Long authorId) {
+        AfterCommit.run(() -> {
+            Long count = pulledAuthors.computeIfPresent(authorId, (id, current) -> current - 1);
+            if (count != null && count <= followerThreshold) {
+                demote(authorId);
+            }
+        });
+    }
+
+    public void fanOut(Long postId, LocalDateTime createdAt, List<Long> followerIds) {
+        timelineService.fanOut(postId, createdAt, followerIds);
+    }
+
+    /**
+     * Push an unhidden post back to its author's followers once the unhide
+     * commits: timelines built while it was hidden do not hold it. Posts of
+     * pulled authors are read at request time and need nothing.
+     */
+    public void postRestoredAfterCommit(Long postId, Long authorId, LocalDateTime createdAt) {
+        AfterCommit.run(() -> {
+            if (!pulledAuthors.containsKey(authorId)) {
+                timelineService.fanOut(postId, createdAt, subscriptionRepository.findFollowerIdsByFollowingId(authorId));
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPulledAuthors() {
+        pulledAuthors.putAll(countFollowersAboveThreshold());
+    }
+
+    /**
+     * Reload the follower counts of authors above the threshold, demoting those
+     * that are no longer above it.
+     */
+    @Scheduled(initialDelayString = "${feed.pull.refresh-ms:3600000}", fixedDelayString = "${feed.pull.refresh-ms:3600000}")
+    public void refreshPulledAuthors() {
+        Map<Long, Long> current = countFollowersAboveThreshold();
+        pulledAuthors.putAll(current);
+        for (Long authorId : List.copyOf(pulledAuthors.keySet())) {
+            if (!current.containsKey(authorId)) {
+                demote(authorId);
+            }
+        }
+    }
+
+    private Map<Long, Long> countFollowersAboveThreshold() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : subscriptionRepository.countFollowersAbove(followerThreshold)) {
+            counts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    // The author's posts were never pushed: rebuild their followers' timelines on next read
+    private void demote(Long authorId) {
+        if (pulledAuthors.remove(authorId) != null) {
+            timelineService.evict(subscriptionRepository.findFollowerIdsByFollowingId(authorId));
+        }
+    }
+
+    public CursorPage<PostSummaryView> getFollowingFeed(Long userId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Set<Long> following = new HashSet<>(subscriptionRepository.findFollowingIdsByFollowerId(userId));
+        Set<Long> pulled = Set.copyOf(pulledAuthors.keySet());
+
+        // Every source yields limit + 1 items so the merge can tell whether a next page exists
+        List<List<PostSummaryView>> sources = new ArrayList<>();
+        List<PostSummaryView> pushed = new ArrayList<>(timelineService.readTimeline(userId, following, pulled, position, limit + 1));
+        pushed.sort(NEWEST_FIRST);
+        sources.add(pushed);
+
+        Pageable window = PageRequest.of(0, limit + 1);
+        for (Long authorId : following) {
+            if (pulled.contains(authorId)) {
+                sources.add(position == null
+                        ? postRepository.findVisibleSummariesByAuthorLatest(authorId, window)
+                        : postRepository.findVisibleSummariesByAuthorBefore(authorId, position.createdAt(), position.id(), window));
+            }
+        }
+
+        KWayMerge.Result<PostSummaryView> merged = KWayMerge.merge(sources, NEWEST_FIRST, PostSummaryView::getId, limit + 1);
+        mergeStreams.record(sources.size());
+        mergeCost.record(merged.cost());
+
+        List<PostSummaryView> posts = merged.items();
+        String next = null;
+        if (posts.size() > limit) {
+            posts = posts.subList(0, limit);
+            PostSummaryView last = posts.get(limit - 1);
+            next = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(posts, next);
+    }
+}
@@ -0,0 +1,39 @@
+package com.blog.blogger.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.models.User;
+import com.blog.blogger.utils.AfterCommit;
+import com.blog.blogger.utils.ETags;
+
+/**
+ * FeedVersionService - A number that changes whenever a page of the public feed may change
+ *
+ * Bumped after every committed post create, edit, hide, unhide, delete, like or
+ * comment, so list pages can answer If-None-Match with 304 without running a
+ * query. The boot time is part of the tag: versions restart at zero with the
+ * process and must not match tags handed out before.
+ */
+@Service
+public class FeedVersionService {
+
+    private final long bootId = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    public void bumpAfterCommit() {
+        AfterCommit.run(this::bump);
+    }
+
+    /**
+     * Tag of a feed page as seen by this viewer (likedByMe differs per viewer).
+     */
+    public String etag(User viewer) {
+        return ETags.weak("feed-" + bootId + "-" + version.get() + "-" + (viewer == null ? 0 : viewer.getId()));
+    }
+}
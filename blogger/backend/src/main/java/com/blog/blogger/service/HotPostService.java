@@ -0,0 +1,205 @@
+package com.blog.blogger.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.utils.AfterCommit;
+import com.blog.blogger.utils.TopKScores;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * HotPostService - In-memory ranking behind /auth/posts/hot
+ *
+ * A post's score is the sum of its events (publication, likes, comments), each
+ * weighted and decayed with a half-life of hot.half-life-hours. Rather than
+ * decaying every score as time passes, an event at time t adds
+ * weight * 2^((t - epoch) / halfLife): newer events count more, which ranks
+ * exactly like decaying all scores, and the scores never need recomputing.
+ * A periodic rebase moves the epoch forward and scales all scores down so they
+ * stay small. Only the hot.max-tracked best posts are kept (TopKScores); the
+ * ranking is seeded from the last hot.window-days of posts at startup.
+ *
+ * An unlike or a deleted comment takes back the weight of the event it removes,
+ * i.e. weighted at the like's or comment's time rather than now, and never
+ * takes a post below the weight of its publication: seeded likes and comments
+ * count at publication time, so the exact share is not known. Posts leave the ranking once their delete or hide commits and
+ * come back with their current counts when unhidden.
+ *
+ * Metrics:
+ * - hot.tracked.posts: posts currently ranked
+ * - hot.rebase: time spent rescaling the scores
+ */
+@Service
+public class HotPostService {
+
+    private static final double MILLIS_PER_HOUR = 3_600_000d;
+
+    private final PostRepository postRepository;
+    private final TopKScores scores;
+    private final double halfLifeMs;
+    private final double postWeight;
+    private final double likeWeight;
+    private final double commentWeight;
+    private final int windowDays;
+    private final Timer rebaseTimer;
+    private long epochMs = System.currentTimeMillis();
+
+    public HotPostService(PostRepository postRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${hot.max-tracked:10000}") int maxTracked,
+                          @Value("${hot.half-life-hours:12}") double halfLifeHours,
+                          @Value("${hot.post-weight:3}") double postWeight,
+                          @Value("${hot.like-weight:1}") double likeWeight,
+                          @Value("${hot.comment-weight:2}") double commentWeight,
+                          @Value("${hot.window-days:7}") int windowDays) {
+        this.postRepository = postRepository;
+        this.scores = new TopKScores(maxTracked);
+        this.halfLifeMs = halfLifeHours * MILLIS_PER_HOUR;
+        this.postWeight = postWeight;
+        this.likeWeight = likeWeight;
+        this.commentWeight = commentWeight;
+        this.windowDays = windowDays;
+
+        Gauge.builder("hot.tracked.posts", this, HotPostService::trackedPosts)
+                .description("Posts held in the hot ranking")
+                .register(meterRegistry);
+        this.rebaseTimer = Timer.builder("hot.rebase")
+                .description("Time to rescale the hot ranking to a new epoch")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        LocalDateTime since = LocalDateTime.now().minusDays(windowDays);
+        List<Object[]> rows = postRepository.findEngagementSince(since);
+        synchronized (scores) {
+            scores.clear();
+            for (Object[] row : rows) {
+                // Counts are attributed to the publication time: an approximation that later events refine
+                double weight = postWeight + likeWeight * ((Number) row[1]).doubleValue()
+                        + commentWeight * ((Number) row[2]).doubleValue();
+                scores.add((Long) row[0], weight * growth(toMillis((LocalDateTime) row[3])));
+            }
+        }
+    }
+
+    public void recordPublished(Long postId) {
+        record(postId, postWeight);
+    }
+
+    /**
+     * Put an unhidden post back once the surrounding transaction commits, scored
+     * from its current counts like the startup seed.
+     */
+    public void restoreAfterCommit(Long postId, LocalDateTime createdAt, long likes, long comments) {
+        if (createdAt.isBefore(LocalDateTime.now().minusDays(windowDays))) {
+            return;
+        }
+        double weight = postWeight + likeWeight * likes + commentWeight * comments;
+        AfterCommit.run(() -> {
+            synchronized (scores) {
+                scores.remove(postId);
+                scores.add(postId, weight * growth(toMillis(createdAt)));
+            }
+        });
+    }
+
+    public void recordComment(Long postId) {
+        record(postId, commentWeight);
+    }
+
+    /**
+     * Apply a like once the surrounding transaction commits.
+     */
+    public void recordLikeAfterCommit(Long postId) {
+        AfterCommit.run(() -> record(postId, likeWeight));
+    }
+
+    /**
+     * Take back a like made at likedAt once the surrounding transaction commits,
+     * keeping at least the weight of the post's publication at createdAt.
+     */
+    public void recordUnlikeAfterCommit(Long postId, LocalDateTime createdAt, LocalDateTime likedAt) {
+        AfterCommit.run(() -> {
+            synchronized (scores) {
+                scores.subtract(postId, likeWeight * growth(toMillis(likedAt)), postWeight * growth(toMillis(createdAt)));
+            }
+        });
+    }
+
+    /**
+     * Take back a comment made at commentedAt once the surrounding transaction
+     * commits, keeping at least the weight of the post's publication at createdAt.
+     */
+    public void recordCommentRemovedAfterCommit(Long postId, LocalDateTime createdAt, LocalDateTime commentedAt) {
+        AfterCommit.run(() -> {
+            synchronized (scores) {
+                scores.subtract(postId, commentWeight * growth(toMillis(commentedAt)), postWeight * growth(toMillis(createdAt)));
+            }
+        });
+    }
+
+    public void removeAfterCommit(Collection<Long> postIds) {
+        List<Long> ids = List.copyOf(postIds);
+        AfterCommit.run(() -> remove(ids));
+    }
+
+    public void remove(Collection<Long> postIds) {
+        synchronized (scores) {
+            postIds.forEach(scores::remove);
+        }
+    }
+
+    /**
+     * Post ids ranked offset .. offset + limit - 1, hottest first.
+     */
+    public List<Long> topIds(int offset, int limit) {
+        synchronized (scores) {
+            return scores.top(offset, limit);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${hot.rebase-ms:3600000}")
+    public void rebase() {
+        rebaseTimer.record(() -> {
+            synchronized (scores) {
+                long now = System.currentTimeMillis();
+                scores.scale(1 / growth(now));
+                epochMs = now;
+            }
+        });
+    }
+
+    private void record(Long postId, double weight) {
+        synchronized (scores) {
+            scores.add(postId, weight * growth(System.currentTimeMillis()));
+        }
+    }
+
+    // 2^((t - epoch) / halfLife): the weight of an event at t relative to one at the epoch
+    private double growth(long timeMs) {
+        return Math.pow(2, (timeMs - epochMs) / halfLifeMs);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private int trackedPosts() {
+        synchronized (scores) {
+            return scores.size();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.blog.blogger.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongToIntFunction;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.blogger.utils.AfterCommit;
+import com.blog.blogger.utils.CounterBuffer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * LikeCountFlusher - Write-behind aggregation of one table's like_count column
+ *
+ * A like or unlike only inserts or deletes its row in the likes table, whose
+ * unique (user_id, target id) constraint decides whether it counts. The
+ * resulting +1/-1 is buffered in memory after commit and applied in batches of
+ * {@code UPDATE <table> SET like_count = like_count + ?}, so a popular row is
+ * not locked by every like. The owning service drives the flush;
+ * PostCounterReconciler repairs any drift from the likes table.
+ *
+ * Used by LikeCounterService (posts) and CommentLikeCounterService (comments).
+ *
+ * Metrics, with table being posts or comments:
+ * - likes.pending.{table}: rows with an unflushed delta
+ * - likes.flush.{table}: rows written per flush
+ */
+public class LikeCountFlusher {
+
+    private final CounterBuffer pending = new CounterBuffer();
+    private final String applyDelta;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary flushSize;
+
+    /**
+     * @param table table holding the like_count column; a constant, never user input
+     */
+    public LikeCountFlusher(String table, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.applyDelta = "UPDATE " + table + " SET like_count = GREATEST(like_count + ?, 0) WHERE id = ?";
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("likes.pending." + table, pending, CounterBuffer::size)
+                .description("Rows of " + table + " with like-count deltas not yet written")
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("likes.flush." + table)
+                .description("Rows of " + table + " whose like_count was written in one flush")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffer a like-count change once the transaction that inserted or deleted the
+     * like row commits.
+     */
+    public void addAfterCommit(Long id, int delta) {
+        AfterCommit.run(() -> pending.add(id, delta));
+    }
+
+    /**
+     * Delta not yet written to like_count, to add to a value read from the database.
+     */
+    public long pending(Long id) {
+        return pending.pending(id);
+    }
+
+    public boolean hasPending(Long id) {
+        return pending.hasPending(id);
+    }
+
+    /**
+     * Ids with an unflushed delta; a recount of these would be double-counted.
+     */
+    public Set<Long> pendingIds() {
+        return pending.ids();
+    }
+
+    /**
+     * Recount one row's like_count while a delta for it is still buffered: recount
+     * gets that delta and must store COUNT(likes) minus it. Flushes wait
+     * meanwhile, and the recount is rolled back if a like changes the delta
+     * before it commits (the next reconciliation tries again).
+     *
+     * @return rows changed
+     */
+    public synchronized int recountBuffered(Long id, LongToIntFunction recount) {
+        Integer rows = transactionTemplate.execute(status -> {
+            long buffered = pending.pending(id);
+            int changed = recount.applyAsInt(buffered);
+            if (pending.pending(id) != buffered) {
+                status.setRollbackOnly();
+                return 0;
+            }
+            return changed;
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    /**
+     * Write every buffered delta in one JDBC batch and transaction; on failure the
+     * deltas go back into the buffer for the next attempt.
+     *
+     * @return ids of the rows whose like_count changed
+     */
+    public synchronized Set<Long> flush() {
+        Map<Long, Long> deltas = pending.drain();
+        if (deltas.isEmpty()) {
+            return Set.of();
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> rows.add(new Object[] { delta, id }));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(applyDelta, rows));
+        } catch (RuntimeException e) {
+            pending.restore(deltas);
+            throw e;
+        }
+        flushSize.record(deltas.size());
+        return deltas.keySet();
+    }
+}
@@ -0,0 +1,75 @@
+package com.blog.blogger.service;
+
+import java.util.Set;
+import java.util.function.LongToIntFunction;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * LikeCounterService - Write-behind aggregation of posts.like_count
+ *
+ * Buffers the +1/-1 of each committed post like or unlike and writes them in
+ * batches (LikeCountFlusher). PostService drives the flush, since it also
+ * evicts the posts whose count changed.
+ *
+ * Metrics:
+ * - likes.pending.posts: posts with an unflushed delta
+ * - likes.flush.posts: posts written per flush
+ */
+@Service
+public class LikeCounterService {
+
+    private final LikeCountFlusher likeCounts;
+
+    public LikeCounterService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.likeCounts = new LikeCountFlusher("posts", jdbcTemplate, transactionManager, meterRegistry);
+    }
+
+    /**
+     * Buffer a like-count change once the transaction that inserted or deleted the
+     * post_likes row commits.
+     */
+    public void addAfterCommit(Long postId, int delta) {
+        likeCounts.addAfterCommit(postId, delta);
+    }
+
+    /**
+     * Delta not yet written to posts.like_count, to add to a value read from the database.
+     */
+    public long pending(Long postId) {
+        return likeCounts.pending(postId);
+    }
+
+    public boolean hasPending(Long postId) {
+        return likeCounts.hasPending(postId);
+    }
+
+    public Set<Long> pendingIds() {
+        return likeCounts.pendingIds();
+    }
+
+    /**
+     * See {@link LikeCountFlusher#recountBuffered}.
+     */
+    public int recountBuffered(Long postId, LongToIntFunction recount) {
+        return likeCounts.recountBuffered(postId, recount);
+    }
+
+    /**
+     * @return ids of the posts whose like_count changed
+     */
+    public Set<Long> flush() {
+        return likeCounts.flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,115 @@
+package com.blog.blogger.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.events.OutboxConsumer;
+import com.blog.blogger.events.PostPublishedEvent;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.repository.SubscriptionRepository;
+import com.blog.blogger.services.NotificationService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * NewPostFanOut - Delivers a new post to its author's followers off the request path
+ *
+ * Consumes POST_PUBLISHED from the outbox, so it only runs for committed posts
+ * and is retried by OutboxDispatcher when it throws. Followers are walked in keyset chunks of fanout.chunk-size; each
+ * chunk becomes batched NEW_POST notifications (banned followers skipped) and,
+ * for authors below the feed threshold, a timeline push. A retry walks the
+ * followers again from the start: notifications are keyed on the outbox event
+ * id and timelines skip a post they already hold, so chunks written before the
+ * failure are not duplicated.
+ *
+ * Metrics:
+ * - fanout.notifications: notifications written (not counting ones a retry found already written)
+ * - fanout.duration: time to fan out one post
+ */
+@Service
+public class NewPostFanOut implements OutboxConsumer<PostPublishedEvent> {
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final PostRepository postRepository;
+    private final NotificationService notificationService;
+    private final FeedService feedService;
+    private final int chunkSize;
+    private final Counter notificationsWritten;
+    private final Timer duration;
+
+    public NewPostFanOut(SubscriptionRepository subscriptionRepository,
+                         PostRepository postRepository,
+                         NotificationService notificationService,
+                         FeedService feedService,
+                         MeterRegistry meterRegistry,
+                         @Value("${fanout.chunk-size:1000}") int chunkSize) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.postRepository = postRepository;
+        this.notificationService = notificationService;
+        this.feedService = feedService;
+        this.chunkSize = chunkSize;
+        this.notificationsWritten = Counter.builder("fanout.notifications")
+                .description("NEW_POST notifications written by the fan-out")
+                .register(meterRegistry);
+        this.duration = Timer.builder("fanout.duration")
+                .description("Time to fan a new post out to all followers")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return "newPostFanOut";
+    }
+
+    @Override
+    public Class<PostPublishedEvent> eventType() {
+        return PostPublishedEvent.class;
+    }
+
+    @Override
+    public void accept(Long eventId, PostPublishedEvent event) {
+        duration.record(() -> fanOut(eventId, event));
+    }
+
+    private void fanOut(Long eventId, PostPublishedEvent event) {
+        boolean push = feedService.pushesPostsOf(event.authorId(),
+                subscriptionRepository.countByFollowingId(event.authorId()));
+        // Timelines are ordered by creation time; a post deleted since is not pushed
+        LocalDateTime createdAt = push ? postRepository.findCreatedAtById(event.postId()).orElse(null) : null;
+
+        Long afterId = 0L;
+        while (true) {
+            List<Object[]> rows = subscriptionRepository.findFollowersAfter(event.authorId(), afterId, PageRequest.of(0, chunkSize));
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            List<Long> followerIds = new ArrayList<>(rows.size());
+            List<Long> recipientIds = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                Long followerId = (Long) row[0];
+                followerIds.add(followerId);
+                if (!Boolean.TRUE.equals(row[1])) {
+                    recipientIds.add(followerId);
+                }
+            }
+
+            notificationsWritten.increment(notificationService.notifyFollowersAboutNewPost(eventId, event, recipientIds));
+            if (createdAt != null) {
+                feedService.fanOut(event.postId(), createdAt, followerIds);
+            }
+
+            if (rows.size() < chunkSize) {
+                return;
+            }
+            afterId = followerIds.get(followerIds.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.blog.blogger.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.blogger.events.OutboxConsumer;
+import com.blog.blogger.models.OutboxEvent;
+import com.blog.blogger.models.OutboxEvent.Status;
+import com.blog.blogger.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * OutboxDispatcher - Delivers outbox events to in-process consumers
+ *
+ * Polls due PENDING events in batches of outbox.batch-size, delivers each one
+ * to every OutboxConsumer of its payload type on the outboxExecutor pool, then
+ * marks the delivered ones DONE in one statement. A failed event is retried
+ * with exponential backoff and marked FAILED after outbox.max-attempts; the
+ * consumers that did accept it are saved on the row and skipped by the retry.
+ * Delivery is at-least-once: a crash between delivery and marking redelivers.
+ * DONE rows older than outbox.retention-hours are pruned.
+ *
+ * Metrics:
+ * - outbox.delivered / outbox.retried / outbox.failed: events by outcome
+ * - outbox.lag: time from recording an event to its delivery
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(10);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, List<OutboxConsumer<?>>> consumersByType = new HashMap<>();
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final int retentionHours;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer lag;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            ObjectMapper objectMapper,
+                            List<OutboxConsumer<?>> consumers,
+                            @Qualifier("outboxExecutor") Executor executor,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${outbox.batch-size:100}") int batchSize,
+                            @Value("${outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+                            @Value("${outbox.retention-hours:24}") int retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        Set<String> names = new HashSet<>();
+        for (OutboxConsumer<?> consumer : consumers) {
+            if (!names.add(consumer.name())) {
+                throw new IllegalStateException("Two outbox consumers are named " + consumer.name());
+            }
+            consumersByType.computeIfAbsent(consumer.eventType(), type -> new ArrayList<>()).add(consumer);
+        }
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.retentionHours = retentionHours;
+        this.delivered = Counter.builder("outbox.delivered")
+                .description("Outbox events delivered to all their consumers")
+                .register(meterRegistry);
+        this.retried = Counter.builder("outbox.retried")
+                .description("Outbox deliveries that failed and were rescheduled")
+                .register(meterRegistry);
+        this.failed = Counter.builder("outbox.failed")
+                .description("Outbox events given up on after outbox.max-attempts")
+                .register(meterRegistry);
+        this.lag = Timer.builder("outbox.lag")
+                .description("Time from recording an outbox event to delivering it")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-ms:500}")
+    public void dispatch() {
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxEventRepository.findDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (!batch.isEmpty()) {
+                dispatchBatch(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.prune-interval-ms:3600000}")
+    public void prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteDoneBefore(cutoff));
+    }
+
+    private void dispatchBatch(List<OutboxEvent> batch) {
+        Map<Long, Throwable> errors = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] deliveries = batch.stream()
+                .map(event -> CompletableFuture.runAsync(() -> deliver(event), executor)
+                        .exceptionally(e -> {
+                            errors.put(event.getId(), e.getCause() != null ? e.getCause() : e);
+                            return null;
+                        }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(deliveries).join();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> doneIds = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            if (!errors.containsKey(event.getId())) {
+                doneIds.add(event.getId());
+                lag.record(Duration.between(event.getCreatedAt(), now));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!doneIds.isEmpty()) {
+                outboxEventRepository.markDone(doneIds, now);
+            }
+            for (OutboxEvent event : batch) {
+                Throwable error = errors.get(event.getId());
+                if (error != null) {
+                    reschedule(event, error, now);
+                }
+            }
+        });
+        delivered.increment(doneIds.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(OutboxEvent event) {
+        Object payload;
+        try {
+            payload = objectMapper.readValue(event.getPayload(), event.getType().payloadType());
+        } catch (Exception e) {
+            throw new RuntimeException("Could not read " + event.getType() + " event " + event.getId(), e);
+        }
+        Set<String> deliveredTo = new LinkedHashSet<>();
+        if (event.getDeliveredTo() != null) {
+            deliveredTo.addAll(Arrays.asList(event.getDeliveredTo().split(",")));
+        }
+        for (OutboxConsumer<?> consumer : consumersByType.getOrDefault(event.getType().payloadType(), List.of())) {
+            if (deliveredTo.contains(consumer.name())) {
+                continue;
+            }
+            ((OutboxConsumer<Object>) consumer).accept(event.getId(), payload);
+            deliveredTo.add(consumer.name());
+            // Saved by reschedule if a later consumer throws
+            event.setDeliveredTo(String.join(",", deliveredTo));
+        }
+    }
+
+    private void reschedule(OutboxEvent event, Throwable error, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(String.valueOf(error.getMessage()));
+        if (attempts >= maxAttempts) {
+            event.setStatus(Status.FAILED);
+            failed.increment();
+            log.error("Outbox event {} ({}) failed {} times, giving up", event.getId(), event.getType(), attempts, error);
+        } else {
+            long backoffMs = Math.min(retryBackoffMs << Math.min(attempts - 1, 20), MAX_BACKOFF.toMillis());
+            event.setAvailableAt(now.plus(Duration.ofMillis(backoffMs)));
+            retried.increment();
+            log.warn("Outbox event {} ({}) failed, retrying in {} ms: {}", event.getId(), event.getType(), backoffMs, error.getMessage());
+        }
+        outboxEventRepository.save(event);
+    }
+}
@@ -0,0 +1,76 @@
+package com.blog.blogger.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blog.blogger.models.OutboxEvent;
+import com.blog.blogger.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes domain events to the outbox table. Must be called inside the
+ * transaction that makes the change, so the event exists if and only if
+ * the change committed; OutboxDispatcher delivers it afterwards.
+ */
+@Service
+public class OutboxService {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO outbox_events (type, payload, status, attempts, available_at, created_at) " +
+            "VALUES (?, ?, ?, 0, ?, ?)";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                         JdbcTemplate jdbcTemplate) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent record(Object event) {
+        OutboxEvent.Type type = OutboxEvent.Type.of(event.getClass());
+        return outboxEventRepository.save(OutboxEvent.builder()
+                .type(type)
+                .payload(serialize(type, event))
+                .availableAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Same as {@link #record} for many events, written as one JDBC batch (a single
+     * multi-row INSERT with rewriteBatchedStatements). Used by CommentBatchWriter.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<?> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (Object event : events) {
+            OutboxEvent.Type type = OutboxEvent.Type.of(event.getClass());
+            rows.add(new Object[] { type.name(), serialize(type, event), OutboxEvent.Status.PENDING.name(), now, now });
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, rows);
+    }
+
+    private String serialize(OutboxEvent.Type type, Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize " + type + " event", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.blog.blogger.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.utils.PostExcerpts;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * PostExcerptBackfill - Fills excerpt, word_count and reading_time_minutes for older posts
+ *
+ * Posts written before these columns existed have them null, and list views would
+ * show no teaser. After startup a background thread walks those posts by id in
+ * batches, each in its own transaction, and stores the values PostService now
+ * computes on every write. Once all rows are filled a run costs one empty query.
+ *
+ * Metrics:
+ * - posts.excerpts.backfilled: posts whose excerpt was filled in
+ */
+@Service
+public class PostExcerptBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(PostExcerptBackfill.class);
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter backfilled;
+
+    public PostExcerptBackfill(PostRepository postRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${posts.excerpt.backfill-batch-size:500}") int batchSize) {
+        this.postRepository = postRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.backfilled = Counter.builder("posts.excerpts.backfilled")
+                .description("Posts whose excerpt and reading time were filled in after startup")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread worker = new Thread(this::backfill, "post-excerpt-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void backfill() {
+        long afterId = 0L;
+        try {
+            while (true) {
+                List<Object[]> rows = postRepository.findContentMissingExcerptAfter(afterId, PageRequest.of(0, batchSize));
+                if (rows.isEmpty()) {
+                    return;
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (Object[] row : rows) {
+                        String content = (String) row[1];
+                        int words = PostExcerpts.wordCount(content);
+                        postRepository.setExcerpt((Long) row[0], PostExcerpts.excerpt(content),
+                                words, PostExcerpts.readingMinutes(words));
+                    }
+                });
+                backfilled.increment(rows.size());
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+        } catch (RuntimeException e) {
+            log.warn("Excerpt backfill stopped after post {}; it resumes on the next start", afterId, e);
+        }
+    }
+}
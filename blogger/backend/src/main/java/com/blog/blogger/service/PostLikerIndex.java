@@ -0,0 +1,144 @@
+package com.blog.blogger.service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.blog.blogger.repository.PostLikeRepository;
+import com.blog.blogger.utils.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * PostLikerIndex - In-process set of likers per post, as compressed bitmaps
+ *
+ * For each recently used post, the ids of the users who liked it are kept in a
+ * RoaringBitmap (a few bits per liker on dense id ranges, versus ~50 bytes per
+ * boxed Long in a HashSet). A post's bitmap is loaded from post_likes on first
+ * use and then kept current by likePost/unlikePost after their transactions
+ * commit; the least recently used posts are dropped beyond likes.index.max-posts,
+ * and every bitmap is reloaded after likes.index.ttl-seconds.
+ *
+ * Bitmaps are only loaded outside a transaction: one under REPEATABLE READ
+ * reads a snapshot that can predate a like committed since, and that like
+ * would then be missing until the bitmap expires. Inside a transaction a
+ * missing bitmap is answered from post_likes instead. An update that commits
+ * while a load is in flight is applied once the load finishes (both go through
+ * the cache's per-key compute). post_likes stays the source of truth for
+ * writes: the insert and delete remain conditional on the unique constraint.
+ *
+ * Exported as cache.* metrics with cache=post-likers.
+ */
+@Service
+public class PostLikerIndex {
+
+    private final PostLikeRepository postLikeRepository;
+    private final Cache<Long, RoaringBitmap> likers;
+
+    public PostLikerIndex(PostLikeRepository postLikeRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${likes.index.max-posts:20000}") long maxPosts,
+                          @Value("${likes.index.ttl-seconds:3600}") long ttlSeconds) {
+        this.postLikeRepository = postLikeRepository;
+        this.likers = Caffeine.newBuilder()
+                .maximumSize(maxPosts)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, likers, "post-likers");
+    }
+
+    public boolean hasLiked(Long postId, Long userId) {
+        RoaringBitmap bitmap = null;
+        if (indexable(userId)) {
+            bitmap = TransactionSynchronizationManager.isActualTransactionActive()
+                    ? likers.getIfPresent(postId)
+                    : likers.get(postId, this::load);
+        }
+        if (bitmap == null) {
+            return postLikeRepository.findLikedPostIds(userId, List.of(postId)).contains(postId);
+        }
+        synchronized (bitmap) {
+            return bitmap.contains(userId.intValue());
+        }
+    }
+
+    /**
+     * Liked state for posts whose bitmap is already in memory. Posts not in the
+     * index are left out rather than loaded, so a feed page doesn't pull in the
+     * liker list of every post on it.
+     *
+     * @param unknown receives the ids this index could not answer for
+     */
+    public Set<Long> likedAmongIndexed(Long userId, List<Long> postIds, Set<Long> unknown) {
+        Set<Long> liked = new HashSet<>();
+        for (Long postId : postIds) {
+            RoaringBitmap bitmap = indexable(userId) ? likers.getIfPresent(postId) : null;
+            if (bitmap == null) {
+                unknown.add(postId);
+                continue;
+            }
+            synchronized (bitmap) {
+                if (bitmap.contains(userId.intValue())) {
+                    liked.add(postId);
+                }
+            }
+        }
+        return liked;
+    }
+
+    /**
+     * Record a like or unlike once the surrounding transaction commits. Posts not
+     * in the index are skipped; they load the committed rows when next used.
+     */
+    public void updateAfterCommit(Long postId, Long userId, boolean liked) {
+        AfterCommit.run(() -> update(postId, userId, liked));
+    }
+
+    public void invalidate(Long postId) {
+        likers.invalidate(postId);
+    }
+
+    private void update(Long postId, Long userId, boolean liked) {
+        if (!indexable(userId)) {
+            likers.invalidate(postId);
+            return;
+        }
+        likers.asMap().computeIfPresent(postId, (id, bitmap) -> {
+            synchronized (bitmap) {
+                if (liked) {
+                    bitmap.add(userId.intValue());
+                } else {
+                    bitmap.remove(userId.intValue());
+                }
+            }
+            return bitmap;
+        });
+    }
+
+    private RoaringBitmap load(Long postId) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (Long userId : postLikeRepository.findUserIdsByPostId(postId)) {
+            // Out-of-range users never query the bitmap, so they need not be in it
+            if (indexable(userId)) {
+                bitmap.add(userId.intValue());
+            }
+        }
+        bitmap.runOptimize();
+        return bitmap;
+    }
+
+    // Bitmaps hold 32-bit values; user ids beyond that are answered from the database
+    private static boolean indexable(Long userId) {
+        return userId != null && userId >= 0 && userId <= Integer.MAX_VALUE;
+    }
+}
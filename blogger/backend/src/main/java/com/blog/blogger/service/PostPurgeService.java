@@ -0,0 +1,88 @@
+package com.blog.blogger.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blog.blogger.repository.CommentLikeRepository;
+import com.blog.blogger.repository.CommentRepository;
+import com.blog.blogger.repository.PostLikeRepository;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.repository.ReportRepository;
+import com.blog.blogger.repository.ResponseRepository;
+
+/**
+ * PostPurgeService - Set-based delete of posts and everything hanging off them
+ *
+ * Deletes children before parents with one bulk statement per table, keyed by
+ * post id, so purging a post costs seven statements whether it has no comments
+ * or thousands. Bulk deletes bypass the persistence context and entity cascades:
+ * callers evict their caches (PostService.evictPost, PostLikerIndex) themselves.
+ * Only the search index, tag counts, public feed cache, comment rankings and
+ * hot ranking are updated here, after commit.
+ */
+@Service
+public class PostPurgeService {
+
+    private final ResponseRepository responseRepository;
+    private final CommentLikeRepository commentLikeRepository;
+    private final CommentRepository commentRepository;
+    private final PostLikeRepository postLikeRepository;
+    private final ReportRepository reportRepository;
+    private final PostRepository postRepository;
+    private final PostSearchService postSearchService;
+    private final TagService tagService;
+    private final PublicFeedCache publicFeedCache;
+    private final TopCommentIndex topCommentIndex;
+    private final HotPostService hotPostService;
+
+    public PostPurgeService(ResponseRepository responseRepository,
+                            CommentLikeRepository commentLikeRepository,
+                            CommentRepository commentRepository,
+                            PostLikeRepository postLikeRepository,
+                            ReportRepository reportRepository,
+                            PostRepository postRepository,
+                            PostSearchService postSearchService,
+                            TagService tagService,
+                            PublicFeedCache publicFeedCache,
+                            TopCommentIndex topCommentIndex,
+                            HotPostService hotPostService) {
+        this.responseRepository = responseRepository;
+        this.commentLikeRepository = commentLikeRepository;
+        this.commentRepository = commentRepository;
+        this.postLikeRepository = postLikeRepository;
+        this.reportRepository = reportRepository;
+        this.postRepository = postRepository;
+        this.postSearchService = postSearchService;
+        this.tagService = tagService;
+        this.publicFeedCache = publicFeedCache;
+        this.topCommentIndex = topCommentIndex;
+        this.hotPostService = hotPostService;
+    }
+
+    /**
+     * @return total number of rows deleted across all tables
+     */
+    @Transactional
+    public int purge(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+        List<String> visibleTags = postRepository.findVisibleTagsByPostIds(postIds);
+        int rows = responseRepository.deleteByPostIds(postIds);
+        rows += commentLikeRepository.deleteByPostIds(postIds);
+        rows += commentRepository.deleteByPostIds(postIds);
+        rows += postLikeRepository.deleteByPostIds(postIds);
+        rows += reportRepository.deleteByPostIds(postIds);
+        rows += postRepository.deleteTagsByPostIds(postIds);
+        rows += postRepository.deleteByIds(postIds);
+        postSearchService.removeAfterCommit(postIds);
+        tagService.removeAfterCommit(visibleTags);
+        publicFeedCache.invalidateAfterCommit();
+        topCommentIndex.invalidateAfterCommit(postIds);
+        hotPostService.removeAfterCommit(postIds);
+        return rows;
+    }
+}
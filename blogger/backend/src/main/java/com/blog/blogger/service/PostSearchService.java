@@ -0,0 +1,397 @@
+package com.blog.blogger.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.models.Post;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.utils.AfterCommit;
+import com.blog.blogger.utils.InvertedIndex;
+import com.blog.blogger.utils.InvertedIndex.Hit;
+import com.blog.blogger.utils.SearchTokenizer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ValidationException;
+
+/**
+ * PostSearchService - Full-text search over visible posts behind /auth/posts/search
+ *
+ * Keeps an InvertedIndex of title, content and tags (title and tag terms weigh
+ * more) in memory, updated after commit when PostService creates, edits, hides,
+ * unhides or deletes a post. Hidden posts are not indexed. The index is written
+ * to search.snapshot-path every search.snapshot-interval-ms and on shutdown; at
+ * startup it is read back and only posts changed or deleted since the snapshot
+ * are replayed, falling back to a full rebuild when there is no usable snapshot.
+ * Loading runs in the background; until it is done results may be incomplete.
+ *
+ * Writing a snapshot takes no lock while it serializes and writes the file:
+ * live updates arriving meanwhile are queued and applied once it is done, so
+ * searches keep running and writers never wait on disk I/O (they only see
+ * their change in results a little later).
+ *
+ * Metrics:
+ * - search.index.documents: posts indexed
+ * - search.index.ready: 1 once loading has finished
+ * - search.query: query latency
+ */
+@Service
+public class PostSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSearchService.class);
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 3;
+    private static final int LOAD_BATCH = 500;
+    private static final int MAX_QUERY_LENGTH = 200;
+    // Rows committed shortly before a snapshot may not have reached the index yet
+    private static final long CATCH_UP_MARGIN_MS = 60_000;
+
+    private final PostRepository postRepository;
+    private final Path snapshotPath;
+    private final double compactRatio;
+    private final Timer queryTimer;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Posts changed by live updates while loading; the loader must not overwrite them with older rows
+    private final Set<Long> touchedWhileLoading = ConcurrentHashMap.newKeySet();
+    // Live updates held back while a snapshot reads the index; guarded by lock
+    private final List<Runnable> deferred = new ArrayList<>();
+    private boolean snapshotting;
+    private InvertedIndex index = new InvertedIndex();
+    private volatile boolean ready;
+
+    public PostSearchService(PostRepository postRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${search.snapshot-path:data/search-index.bin}") String snapshotPath,
+                             @Value("${search.compact-ratio:0.25}") double compactRatio) {
+        this.postRepository = postRepository;
+        this.snapshotPath = Path.of(snapshotPath);
+        this.compactRatio = compactRatio;
+
+        Gauge.builder("search.index.documents", this, service -> service.read(() -> service.index.size()))
+                .description("Posts in the full-text search index")
+                .register(meterRegistry);
+        Gauge.builder("search.index.ready", this, service -> service.ready ? 1 : 0)
+                .description("1 once the search index has been loaded")
+                .register(meterRegistry);
+        this.queryTimer = Timer.builder("search.query")
+                .description("Full-text search query latency")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        Thread loader = new Thread(this::load, "search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Ranked hits for the query, at most limit of them, after the position
+     * encoded in cursor (null for the first page).
+     */
+    public List<Hit> search(String query, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("Search query must not be empty");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new ValidationException("Search query must not exceed " + MAX_QUERY_LENGTH + " characters");
+        }
+        List<String> terms = SearchTokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        Hit after = decodeCursor(cursor);
+        return queryTimer.record(() -> read(() -> index.search(terms, limit, after)));
+    }
+
+    public void indexAfterCommit(Post post) {
+        Long id = post.getId();
+        if (Boolean.TRUE.equals(post.getIsHidden())) {
+            removeAfterCommit(List.of(id));
+            return;
+        }
+        // Capture the fields now: the entity may change or be detached before commit
+        String title = post.getTitle();
+        String content = post.getContent();
+        List<String> tags = List.copyOf(post.getTags());
+        AfterCommit.run(() -> {
+            touchedWhileLoading.add(id);
+            update(() -> put(index, id, title, content, tags));
+        });
+    }
+
+    public void removeAfterCommit(Collection<Long> postIds) {
+        List<Long> ids = List.copyOf(postIds);
+        AfterCommit.run(() -> {
+            touchedWhileLoading.addAll(ids);
+            update(() -> ids.forEach(index::remove));
+        });
+    }
+
+    public static String encodeCursor(Hit hit) {
+        String raw = Float.floatToIntBits(hit.score()) + "|" + hit.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compact away replaced documents when they pile up, then write a snapshot.
+     * Synchronized with writeSnapshot so a shutdown snapshot never reads a compaction in progress.
+     */
+    @Scheduled(initialDelayString = "${search.snapshot-interval-ms:600000}",
+               fixedDelayString = "${search.snapshot-interval-ms:600000}")
+    public synchronized void maintain() {
+        if (!ready) {
+            return;
+        }
+        write(() -> {
+            if (index.deadDocuments() > index.size() * compactRatio) {
+                index.compact();
+            }
+        });
+        writeSnapshot();
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        if (ready) {
+            writeSnapshot();
+        }
+    }
+
+    private void load() {
+        try {
+            if (!loadSnapshot()) {
+                rebuild();
+            }
+            ready = true;
+            touchedWhileLoading.clear();
+            log.info("Search index ready with {} posts", read(() -> index.size()));
+        } catch (RuntimeException e) {
+            log.error("Loading the search index failed", e);
+        }
+    }
+
+    private void rebuild() {
+        Long afterId = 0L;
+        List<Object[]> rows;
+        do {
+            rows = postRepository.findSearchableAfter(afterId, PageRequest.of(0, LOAD_BATCH));
+            apply(rows);
+            if (!rows.isEmpty()) {
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+        } while (rows.size() == LOAD_BATCH);
+    }
+
+    private boolean loadSnapshot() {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return false;
+        }
+        long snapshotAt;
+        InvertedIndex loaded;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            snapshotAt = in.readLong();
+            loaded = InvertedIndex.readFrom(in);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable search index snapshot {}: {}", snapshotPath, e.getMessage());
+            return false;
+        }
+        write(() -> {
+            // Live updates made while the file was read are replayed from the database below
+            index = loaded;
+            touchedWhileLoading.clear();
+        });
+
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(snapshotAt - CATCH_UP_MARGIN_MS), ZoneId.systemDefault());
+        Long afterId = 0L;
+        List<Object[]> rows;
+        do {
+            rows = postRepository.findSearchableUpdatedSince(since, afterId, PageRequest.of(0, LOAD_BATCH));
+            apply(rows);
+            if (!rows.isEmpty()) {
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+        } while (rows.size() == LOAD_BATCH);
+        removeDeletedSince();
+        return true;
+    }
+
+    // Merge the sorted ids of the index with the ids in the database; ids only in the index were deleted
+    private void removeDeletedSince() {
+        long[] indexed = read(() -> index.sortedIds());
+        List<Long> deleted = new ArrayList<>();
+        int i = 0;
+        Long afterId = 0L;
+        List<Long> existing;
+        do {
+            existing = postRepository.findIdsAfter(afterId, PageRequest.of(0, LOAD_BATCH * 10));
+            long upTo = existing.isEmpty() ? Long.MAX_VALUE : existing.get(existing.size() - 1);
+            int j = 0;
+            while (i < indexed.length && indexed[i] <= upTo) {
+                while (j < existing.size() && existing.get(j) < indexed[i]) {
+                    j++;
+                }
+                if (j >= existing.size() || existing.get(j) != indexed[i]) {
+                    deleted.add(indexed[i]);
+                }
+                i++;
+            }
+            if (!existing.isEmpty()) {
+                afterId = upTo;
+            }
+        } while (existing.size() == LOAD_BATCH * 10);
+        while (i < indexed.length) {
+            deleted.add(indexed[i++]);
+        }
+        write(() -> deleted.stream().filter(id -> !touchedWhileLoading.contains(id)).forEach(index::remove));
+    }
+
+    private void apply(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Map<Long, List<String>> tagsByPost = new HashMap<>();
+        List<Long> ids = rows.stream().map(row -> (Long) row[0]).toList();
+        for (Object[] row : postRepository.findTagsByPostIds(ids)) {
+            tagsByPost.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        write(() -> {
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                if (touchedWhileLoading.contains(id)) {
+                    continue;
+                }
+                if (Boolean.TRUE.equals(row[3])) {
+                    index.remove(id);
+                } else {
+                    put(index, id, (String) row[1], (String) row[2], tagsByPost.getOrDefault(id, List.of()));
+                }
+            }
+        });
+    }
+
+    private synchronized void writeSnapshot() {
+        Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        InvertedIndex frozen;
+        lock.writeLock().lock();
+        try {
+            snapshotting = true;
+            frozen = index;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            if (snapshotPath.getParent() != null) {
+                Files.createDirectories(snapshotPath.getParent());
+            }
+            // No lock held: nothing modifies the index until the deferred updates are applied
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeLong(System.currentTimeMillis());
+                frozen.writeTo(out);
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write search index snapshot {}: {}", snapshotPath, e.getMessage());
+        } finally {
+            write(() -> {
+                snapshotting = false;
+                deferred.forEach(Runnable::run);
+                deferred.clear();
+            });
+        }
+    }
+
+    private static void put(InvertedIndex target, Long id, String title, String content, List<String> tags) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        int length = addTerms(termFreqs, title, TITLE_WEIGHT) + addTerms(termFreqs, content, 1);
+        for (String tag : tags) {
+            length += addTerms(termFreqs, tag, TAG_WEIGHT);
+        }
+        target.put(id, termFreqs, length);
+    }
+
+    private static int addTerms(Map<String, Integer> termFreqs, String text, int weight) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        tokens.forEach(token -> termFreqs.merge(token, weight, Integer::sum));
+        return tokens.size();
+    }
+
+    private static Hit decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return new Hit(Long.parseLong(raw.substring(separator + 1)),
+                    Float.intBitsToFloat(Integer.parseInt(raw.substring(0, separator))));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    private <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A live change to the index, queued while a snapshot is being written
+    private void update(Runnable action) {
+        write(() -> {
+            if (snapshotting) {
+                deferred.add(action);
+            } else {
+                action.run();
+            }
+        });
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -1,32 +1,64 @@
 package com.blog.blogger.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.blog.blogger.dto.CursorPage;
+import com.blog.blogger.dto.PostDTO;
+import com.blog.blogger.dto.PostSummaryView;
+import com.blog.blogger.events.PostPublishedEvent;
 import com.blog.blogger.models.Post;
-import com.blog.blogger.models.Comment;
-import com.blog.blogger.models.PostLike;
 import com.blog.blogger.models.User;
-import com.blog.blogger.repository.CommentLikeRepository;
-import com.blog.blogger.repository.CommentRepository;
 import com.blog.blogger.repository.PostLikeRepository;
 import com.blog.blogger.repository.PostRepository;
-import com.blog.blogger.repository.ReportRepository;
+import com.blog.blogger.utils.AfterCommit;
+import com.blog.blogger.utils.InvertedIndex;
+import com.blog.blogger.utils.KeysetCursor;
+import com.blog.blogger.utils.PostExcerpts;
+import com.blog.blogger.utils.SingleFlight;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.validation.ValidationException;
 
 
 @Service
 public class PostService {
 
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_BATCH_IDS = 100;
+    private static final int MAX_TAGS = 10;
+    private static final int MAX_TAG_LENGTH = 30;
+    // Reads of a hot page that may drop stale ids before settling for a short page
+    private static final int HOT_PAGE_ATTEMPTS = 3;
+
     @Autowired
     private PostRepository postRepository;
 
@@ -34,42 +66,348 @@ public class PostService {
     private PostLikeRepository postLikeRepository;
 
     @Autowired
-    private CommentRepository commentRepository;
-
-    @Autowired
-    private CommentLikeRepository commentLikeRepository;
-
-    @Autowired
-    private ReportRepository reportRepository;
-
+    private com.blog.blogger.services.NotificationService notificationService;
+
     @Autowired
-    private SubscriptionService subscriptionService;
+    private FeedService feedService;
 
     @Autowired
-    private com.blog.blogger.services.NotificationService notificationService;
+    private SingleFlight<Long, Post> postLoads;
+
+    @Autowired
+    private LikeCounterService likeCounterService;
+
+    @Autowired
+    private PostLikerIndex postLikerIndex;
+
+    @Autowired
+    private PostPurgeService postPurgeService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private HotPostService hotPostService;
+
+    @Autowired
+    private PostSearchService postSearchService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private FeedVersionService feedVersionService;
+
+    @Autowired
+    private PublicFeedCache publicFeedCache;
+
+    /**
+     * Read-through cache of single posts. Entries are copies with their own author
+     * and tags (detachedCopy), never an instance managed by a request's persistence
+     * context, so a request that loads and edits the post cannot change what other
+     * threads are serving. Bounded by size and TTL; entries are evicted by every write
+     * that changes what GET /auth/posts/{id} returns. Exported as cache.* metrics
+     * with cache=posts.
+     */
+    private final Cache<Long, Post> postCache;
+
+    /**
+     * Eviction counters of the post cache, striped by post id. A load notes its
+     * post's counter before reading and, if an eviction bumped it meanwhile, drops
+     * the value it just cached: that eviction may have run before the put.
+     */
+    private final AtomicLongArray cacheGenerations = new AtomicLongArray(1024);
+
+    public PostService(MeterRegistry meterRegistry,
+                       @Value("${posts.cache.max-size:10000}") long maxSize,
+                       @Value("${posts.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.postCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, postCache, "posts");
+    }
 
-    public Page<Post> getAllPosts(int page, int size) {
-         Pageable pageable = PageRequest.of(page - 1, size, Sort.by("createdAt").descending());
-        return postRepository.findByIsHiddenFalseOrIsHiddenIsNull(pageable);
+    public Page<PostDTO> getAllPosts(int page, int size, User viewer) {
+         Pageable pageable = PageRequest.of(page - 1, size);
+        Page<PostSummaryView> summaries = postRepository.findVisibleSummaries(pageable);
+        return new PageImpl<>(toDTOs(summaries.getContent(), viewer), pageable, summaries.getTotalElements());
+    }
+
+    /**
+     * Cursor mode of the public feed: seeks past the (createdAt, id) of the previous
+     * page instead of OFFSET, and fetches one extra row to know whether a next page exists.
+     */
+    public CursorPage<PostDTO> getPostsByCursor(String cursor, int size, User viewer) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, limit + 1);
+
+        List<PostSummaryView> posts = position == null
+                ? postRepository.findVisibleSummariesLatest(pageable)
+                : postRepository.findVisibleSummariesBefore(position.createdAt(), position.id(), pageable);
+
+        String next = null;
+        if (posts.size() > limit) {
+            posts = posts.subList(0, limit);
+            PostSummaryView last = posts.get(limit - 1);
+            next = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(toDTOs(posts, viewer), next);
     }
 
     
-    public Page<Post> getAllPostsIncludingHidden(int page, int size) {
-         Pageable pageable = PageRequest.of(page - 1, size, Sort.by("createdAt").descending());
-        return postRepository.findAll(pageable);
+    public Page<PostDTO> getAllPostsIncludingHidden(int page, int size) {
+         Pageable pageable = PageRequest.of(page - 1, size);
+        Page<PostSummaryView> summaries = postRepository.findAllSummaries(pageable);
+        return new PageImpl<>(toDTOs(summaries.getContent()), pageable, summaries.getTotalElements());
     }
 
     
-    public List<Post> getPostsFromFollowedUsers(String currentUsername) {
-        List<Long> followingIds = subscriptionService.getFollowingIds(currentUsername);
-        if (followingIds.isEmpty()) {
+    public CursorPage<PostDTO> getPostsFromFollowedUsers(User currentUser, String cursor, int size) {
+        CursorPage<PostSummaryView> page = feedService.getFollowingFeed(currentUser.getId(), cursor, size);
+        return new CursorPage<>(toDTOs(page.getItems(), currentUser), page.getNext());
+    }
+
+    /**
+     * Hot posts in ranked order. The ranking lives in HotPostService; this only
+     * hydrates one page of ids. Ids of posts hidden or deleted since (a like or
+     * comment racing the hide can put one back) are dropped from the ranking and
+     * the page is read again, so that pages stay full and later offsets line up.
+     */
+    public Slice<PostDTO> getHotPosts(int page, int size, User viewer) {
+        Pageable pageable = PageRequest.of(Math.max(0, page - 1), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        int limit = pageable.getPageSize();
+        List<Long> ids;
+        Map<Long, PostSummaryView> byId = new HashMap<>();
+        for (int attempt = 1; ; attempt++) {
+            ids = hotPostService.topIds((int) pageable.getOffset(), limit + 1);
+            byId.clear();
+            if (!ids.isEmpty()) {
+                for (PostSummaryView summary : postRepository.findSummariesByIdIn(ids)) {
+                    if (!Boolean.TRUE.equals(summary.getIsHidden())) {
+                        byId.put(summary.getId(), summary);
+                    }
+                }
+            }
+            List<Long> stale = ids.stream().filter(id -> !byId.containsKey(id)).toList();
+            if (stale.isEmpty() || attempt == HOT_PAGE_ATTEMPTS) {
+                break;
+            }
+            hotPostService.remove(stale);
+        }
+
+        boolean hasNext = ids.size() > limit;
+        List<PostSummaryView> ranked = ids.stream().limit(limit).filter(byId::containsKey).map(byId::get).toList();
+        return new SliceImpl<>(toDTOs(ranked, viewer), pageable, hasNext);
+    }
+
+    /**
+     * Visible posts with a tag, newest first. The cursor is the id of the last
+     * post of the previous page, as an opaque Base64 token like the other
+     * cursors: ids grow with creation time, and paging by id alone is what the
+     * (tag, post_id) index can serve without sorting.
+     */
+    public CursorPage<PostDTO> getPostsByTag(String tag, String cursor, int size, User viewer) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String normalized = TagService.normalize(tag);
+        Pageable pageable = PageRequest.of(0, limit + 1);
+
+        List<PostSummaryView> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postRepository.findVisibleSummariesByTagLatest(normalized, pageable);
+        } else {
+            posts = postRepository.findVisibleSummariesByTagBefore(normalized, decodeIdCursor(cursor), pageable);
+        }
+
+        String next = null;
+        if (posts.size() > limit) {
+            posts = posts.subList(0, limit);
+            next = encodeIdCursor(posts.get(limit - 1).getId());
+        }
+        return new CursorPage<>(toDTOs(posts, viewer), next);
+    }
+
+    private static String encodeIdCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeIdCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Full-text search over visible posts, best match first (see PostSearchService).
+     */
+    public CursorPage<PostDTO> searchPosts(String query, String cursor, int size, User viewer) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<InvertedIndex.Hit> hits = postSearchService.search(query, cursor, limit + 1);
+        String next = null;
+        if (hits.size() > limit) {
+            hits = hits.subList(0, limit);
+            next = PostSearchService.encodeCursor(hits.get(limit - 1));
+        }
+        List<Long> ids = hits.stream().map(InvertedIndex.Hit::id).toList();
+
+        Map<Long, PostSummaryView> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (PostSummaryView summary : postRepository.findSummariesByIdIn(ids)) {
+                if (!Boolean.TRUE.equals(summary.getIsHidden())) {
+                    byId.put(summary.getId(), summary);
+                }
+            }
+        }
+        List<PostSummaryView> ranked = ids.stream().filter(byId::containsKey).map(byId::get).toList();
+        return new CursorPage<>(toDTOs(ranked, viewer), next);
+    }
+
+    /**
+     * Turn summary rows into DTOs, loading the tags of the whole page in one query.
+     */
+    public List<PostDTO> toDTOs(List<PostSummaryView> summaries) {
+        if (summaries.isEmpty()) {
             return List.of();
         }
-        return postRepository.findNonHiddenPostsByAuthorIds(followingIds);
+        List<Long> ids = summaries.stream().map(PostSummaryView::getId).toList();
+        Map<Long, List<String>> tagsByPost = new HashMap<>();
+        for (Object[] row : postRepository.findTagsByPostIds(ids)) {
+            tagsByPost.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return summaries.stream()
+                .map(summary -> PostDTO.from(summary, tagsByPost.getOrDefault(summary.getId(), List.of())))
+                .toList();
+    }
+
+    /**
+     * Same as {@link #toDTOs(List)}, with likedByMe filled in for the viewer by one
+     * extra query for the whole page.
+     */
+    public List<PostDTO> toDTOs(List<PostSummaryView> summaries, User viewer) {
+        List<PostDTO> posts = toDTOs(summaries);
+        if (viewer == null || posts.isEmpty()) {
+            return posts;
+        }
+        Set<Long> liked = getLikedPostIds(viewer, posts.stream().map(PostDTO::getId).toList());
+        posts.forEach(post -> post.setLikedByMe(liked.contains(post.getId())));
+        return posts;
+    }
+
+    /**
+     * Which of the given posts the user has liked: posts in the liker index are
+     * answered from memory, the rest with a single IN query.
+     */
+    public Set<Long> getLikedPostIds(User user, List<Long> postIds) {
+        if (postIds.size() > MAX_BATCH_IDS) {
+            throw new ValidationException("At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        // Anonymous viewers have liked nothing
+        if (user == null || postIds.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> unknown = new HashSet<>();
+        Set<Long> liked = postLikerIndex.likedAmongIndexed(user.getId(), postIds, unknown);
+        if (!unknown.isEmpty()) {
+            liked.addAll(postLikeRepository.findLikedPostIds(user.getId(), unknown));
+        }
+        return liked;
     }
 
     public Optional<Post> getPostById(Long id) {
-        return postRepository.findById(id);
+        Post cached = postCache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        // Concurrent misses share one query; only the thread that ran it fills the cache
+        Post loaded = postLoads.load(id, () -> {
+            long generation = cacheGenerations.get(stripe(id));
+            Post post = postRepository.findWithAuthorAndTagsById(id)
+                    .map(PostService::detachedCopy)
+                    .orElse(null);
+            // A transaction may read from a snapshot older than the last eviction: not cached
+            if (post != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+                postCache.put(id, post);
+                if (cacheGenerations.get(stripe(id)) != generation) {
+                    postCache.invalidate(id);
+                }
+            }
+            return post;
+        });
+        return Optional.ofNullable(loaded);
+    }
+
+    private void uncache(Long id) {
+        cacheGenerations.incrementAndGet(stripe(id));
+        postCache.invalidate(id);
+    }
+
+    private int stripe(Long id) {
+        return (int) Math.floorMod(id, (long) cacheGenerations.length());
+    }
+
+    private static Post detachedCopy(Post post) {
+        User author = post.getAuthor();
+        User authorCopy = User.builder()
+                .id(author.getId())
+                .username(author.getUsername())
+                .email(author.getEmail())
+                .fullName(author.getFullName())
+                .bio(author.getBio())
+                .avatar(author.getAvatar())
+                .profilePictureUrl(author.getProfilePictureUrl())
+                .role(author.getRole())
+                .isBanned(author.getIsBanned())
+                .bannedAt(author.getBannedAt())
+                .createdAt(author.getCreatedAt())
+                .updatedAt(author.getUpdatedAt())
+                .build();
+        return Post.builder()
+                .id(post.getId())
+                .title(post.getTitle())
+                .content(post.getContent())
+                .excerpt(post.getExcerpt())
+                .wordCount(post.getWordCount())
+                .readingTimeMinutes(post.getReadingTimeMinutes())
+                .mediaType(post.getMediaType())
+                .mediaUrl(post.getMediaUrl())
+                .author(authorCopy)
+                .likeCount(post.getLikeCount())
+                .commentCount(post.getCommentCount())
+                .isHidden(post.getIsHidden())
+                .tags(new ArrayList<>(post.getTags()))
+                .createdAt(post.getCreatedAt())
+                .updatedAt(post.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Drop a post from the cache now and again once the current transaction
+     * commits, so a concurrent reader cannot re-cache the pre-commit row. Feed
+     * ETags are invalidated on commit as well.
+     */
+    public void evictPost(Long id) {
+        uncache(id);
+        feedVersionService.bumpAfterCommit();
+        AfterCommit.runAfterCompletion(() -> uncache(id));
+    }
+
+    /**
+     * An author's name or picture changed: their cached posts, feed pages and the
+     * ETags derived from them still carry the old profile. Every cache stripe is
+     * bumped so fills already in flight with the old author are not kept either;
+     * profile edits are rare enough for that.
+     */
+    public void evictAuthor(Long authorId) {
+        for (int i = 0; i < cacheGenerations.length(); i++) {
+            cacheGenerations.incrementAndGet(i);
+        }
+        postCache.asMap().values().removeIf(post -> post.getAuthor() != null && authorId.equals(post.getAuthor().getId()));
+        feedVersionService.bumpAfterCommit();
+        publicFeedCache.invalidateAfterCommit();
     }
 
     @Transactional
@@ -87,32 +425,53 @@ public class PostService {
     }
         post.setTitle(title);
         post.setContent(content);    
+        post.setTags(normalizeTags(post.getTags()));
+        PostExcerpts.apply(post);
 
         Post savedPost = postRepository.save(post);
         System.out.println(savedPost.getContent());
 
-        List<User> followers = subscriptionService.getFollowers(savedPost.getAuthor());
-        notificationService.notifyFollowersAboutNewPost(savedPost, followers);
+        // Notifications and timeline pushes are delivered from the outbox by NewPostFanOut
+        User author = savedPost.getAuthor();
+        outboxService.record(new PostPublishedEvent(savedPost.getId(), savedPost.getTitle(),
+                author.getId(), author.getUsername()));
+        postSearchService.indexAfterCommit(savedPost);
+        tagService.addAfterCommit(savedPost.getTags());
+        feedVersionService.bumpAfterCommit();
+        publicFeedCache.invalidateAfterCommit();
 
         return savedPost;
     }
 
+    // Trimmed, lowercased and de-duplicated, so the same tag is always spelled the same way
+    private List<String> normalizeTags(List<String> tags) {
+        if (tags == null) {
+            return new ArrayList<>();
+        }
+        List<String> normalized = tags.stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .map(TagService::normalize)
+                .distinct()
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (normalized.size() > MAX_TAGS) {
+            throw new ValidationException("At most " + MAX_TAGS + " tags per post");
+        }
+        if (normalized.stream().anyMatch(tag -> tag.length() > MAX_TAG_LENGTH)) {
+            throw new ValidationException("Tags must not exceed " + MAX_TAG_LENGTH + " characters");
+        }
+        return normalized;
+    }
+
     @Transactional
     public void deletePost(Long id) {
-        Post post = postRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
-
-        postLikeRepository.deleteByPost(post);
-
-        List<Comment> comments = commentRepository.findByPost(post);
-        for (Comment comment : comments) {
-            commentLikeRepository.deleteByComment(comment);
+        if (!postRepository.existsById(id)) {
+            throw new RuntimeException("Post not found with id: " + id);
         }
-        commentRepository.deleteAll(comments);
-
-        reportRepository.deleteByPost(post);
 
-        postRepository.delete(post);
+        // Bulk deletes of responses, likes, comments, reports and tags, then the post
+        postPurgeService.purge(List.of(id));
+        evictPost(id);
+        postLikerIndex.invalidate(id);
     }
 
     
@@ -124,57 +483,89 @@ public class PostService {
         
         existingPost.setTitle(updatedPost.getTitle());
         existingPost.setContent(updatedPost.getContent());
+        PostExcerpts.apply(existingPost);
         existingPost.setMediaType(updatedPost.getMediaType());
         existingPost.setMediaUrl(updatedPost.getMediaUrl());
+        if (updatedPost.getTags() != null) {
+            List<String> oldTags = List.copyOf(existingPost.getTags());
+            existingPost.setTags(normalizeTags(updatedPost.getTags()));
+            if (!Boolean.TRUE.equals(existingPost.getIsHidden())) {
+                tagService.replaceAfterCommit(oldTags, existingPost.getTags());
+            }
+        }
 
+        evictPost(id);
+        publicFeedCache.invalidateAfterCommit();
+        postSearchService.indexAfterCommit(existingPost);
         return postRepository.save(existingPost);
     }
 
     
+    /**
+     * Like a post. Only the post_likes row is written here; the like_count change is
+     * buffered by LikeCounterService and flushed in batches.
+     *
+     * @return the like count including changes not yet flushed
+     */
     @Transactional
-    public Post likePost(Long postId, User user) {
-        Post post = postRepository.findById(postId)
+    public long likePost(Long postId, User user) {
+        Post post = getPostById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
-        if (postLikeRepository.existsByUserAndPost(user, post)) {
-            return post;
+        // Already liked: answered from the liker index without touching post_likes
+        if (postLikerIndex.hasLiked(postId, user.getId())) {
+            return currentLikeCount(postId);
         }
-
-        PostLike like = PostLike.builder()
-                .user(user)
-                .post(post)
-                .build();
-        postLikeRepository.save(like);
-
-        post.setLikeCount(post.getLikeCount() + 1);
-        Post savedPost = postRepository.save(post);
-
-        notificationService.notifyUserAboutPostLike(savedPost, user);
-
-        return savedPost;
+        if (postLikeRepository.insertIfAbsent(user.getId(), postId) == 1) {
+            likeCounterService.addAfterCommit(postId, 1);
+            hotPostService.recordLikeAfterCommit(postId);
+            postLikerIndex.updateAfterCommit(postId, user.getId(), true);
+            feedVersionService.bumpAfterCommit();
+            notificationService.notifyUserAboutPostLike(post, user);
+            return currentLikeCount(postId) + 1;
+        }
+        return currentLikeCount(postId);
     }
 
-    
     @Transactional
-    public Post unlikePost(Long postId, User user) {
-        Post post = postRepository.findById(postId)
+    public long unlikePost(Long postId, User user) {
+        // Not short-circuited on the liker index: a like it has not caught up with must still be removable
+        Optional<LocalDateTime> likedAt = postLikeRepository.findLikedAt(user.getId(), postId);
+        if (likedAt.isPresent() && postLikeRepository.deleteByUserIdAndPostId(user.getId(), postId) == 1) {
+            Post post = getPostById(postId)
+                    .orElseThrow(() -> new RuntimeException("Post not found"));
+            likeCounterService.addAfterCommit(postId, -1);
+            hotPostService.recordUnlikeAfterCommit(postId, post.getCreatedAt(), likedAt.get());
+            postLikerIndex.updateAfterCommit(postId, user.getId(), false);
+            feedVersionService.bumpAfterCommit();
+            return Math.max(0, currentLikeCount(postId) - 1);
+        }
+        return currentLikeCount(postId);
+    }
+
+    private long currentLikeCount(Long postId) {
+        int stored = postRepository.findLikeCountById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
+        return Math.max(0, stored + likeCounterService.pending(postId));
+    }
 
-        Optional<PostLike> likeOpt = postLikeRepository.findByUserAndPost(user, post);
-        if (likeOpt.isEmpty()) {
-            return post;
+    /**
+     * Apply buffered like-count deltas and drop the affected posts from the cache.
+     */
+    @Scheduled(fixedDelayString = "${likes.flush-ms:1000}")
+    public void flushLikeCounts() {
+        Set<Long> flushed = likeCounterService.flush();
+        flushed.forEach(this::uncache);
+        if (!flushed.isEmpty()) {
+            feedVersionService.bump();
         }
-
-        postLikeRepository.delete(likeOpt.get());
-        post.setLikeCount(Math.max(0, post.getLikeCount() - 1));
-        return postRepository.save(post);
     }
 
     
     public boolean hasUserLikedPost(Long postId, User user) {
-        Post post = postRepository.findById(postId)
+        getPostById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
-        return postLikeRepository.existsByUserAndPost(user, post);
+        return postLikerIndex.hasLiked(postId, user.getId());
     }
 
     
@@ -182,7 +573,14 @@ public class PostService {
     public Post hidePost(Long postId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found with id: " + postId));
+        if (!Boolean.TRUE.equals(post.getIsHidden())) {
+            tagService.removeAfterCommit(post.getTags());
+        }
         post.setIsHidden(true);
+        evictPost(postId);
+        publicFeedCache.invalidateAfterCommit();
+        hotPostService.removeAfterCommit(List.of(postId));
+        postSearchService.removeAfterCommit(List.of(postId));
         return postRepository.save(post);
     }
 
@@ -191,7 +589,16 @@ public class PostService {
     public Post unhidePost(Long postId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found with id: " + postId));
+        if (Boolean.TRUE.equals(post.getIsHidden())) {
+            tagService.addAfterCommit(post.getTags());
+            hotPostService.restoreAfterCommit(postId, post.getCreatedAt(),
+                    currentLikeCount(postId), post.getCommentCount());
+            feedService.postRestoredAfterCommit(postId, post.getAuthor().getId(), post.getCreatedAt());
+        }
         post.setIsHidden(false);
+        evictPost(postId);
+        publicFeedCache.invalidateAfterCommit();
+        postSearchService.indexAfterCommit(post);
         return postRepository.save(post);
     }
 }
@@ -0,0 +1,120 @@
+package com.blog.blogger.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.utils.AfterCommit;
+import com.blog.blogger.utils.ETags;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * PublicFeedCache - Serialized first pages of GET /auth/posts for logged-out readers
+ *
+ * Anonymous pages are the same for every reader (no likedByMe), so the response
+ * body is kept as JSON bytes plus a gzipped copy and written straight to the
+ * socket on a hit: no query, no entity, no Jackson. Only the first
+ * feed.public-cache.max-page offset pages and the first cursor page are cached,
+ * which keeps the key space small whatever clients send.
+ *
+ * Entries expire after feed.public-cache.ttl-seconds, so like and comment counts
+ * are at most that stale; post create, edit, hide, unhide and delete clear the
+ * cache once their transaction commits. Keys carry a generation number: a page
+ * built from pre-commit data that lands after a clear is filed under the old
+ * generation and never served.
+ *
+ * Exported as cache.* metrics with cache=public-feed.
+ */
+@Service
+public class PublicFeedCache {
+
+    /** A cached response body, ready to write, and the ETag of those bytes. */
+    public record CachedPage(byte[] json, byte[] gzip, String etag) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CachedPage> pages;
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxPage;
+    private final int maxSize;
+
+    public PublicFeedCache(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${feed.public-cache.max-entries:200}") long maxEntries,
+                           @Value("${feed.public-cache.ttl-seconds:10}") long ttlSeconds,
+                           @Value("${feed.public-cache.max-page:5}") int maxPage,
+                           @Value("${feed.public-cache.max-size:50}") int maxSize) {
+        this.objectMapper = objectMapper;
+        this.maxPage = maxPage;
+        this.maxSize = maxSize;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "public-feed");
+    }
+
+    /**
+     * Cache key of a feed request, or null when the page is not cached
+     * (past max-page, odd sizes, or any cursor but the first page).
+     */
+    public String keyFor(int page, int size, String cursor) {
+        if (size < 1 || size > maxSize) {
+            return null;
+        }
+        if (cursor != null) {
+            return cursor.isEmpty() ? "cursor:" + size : null;
+        }
+        return page >= 1 && page <= maxPage ? "page:" + page + ":" + size : null;
+    }
+
+    /**
+     * The cached page for this key, building and serializing it on a miss.
+     * Concurrent misses for the same key share one build.
+     */
+    public CachedPage get(String key, Supplier<Object> body) {
+        return pages.get(generation.get() + "/" + key, k -> serialize(body.get()));
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    public void invalidateAfterCommit() {
+        AfterCommit.run(this::invalidate);
+    }
+
+    private CachedPage serialize(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            CRC32 checksum = new CRC32();
+            checksum.update(json);
+            String etag = ETags.weak("public-" + Long.toHexString(checksum.getValue()) + "-" + json.length);
+            return new CachedPage(json, compressed.toByteArray(), etag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize feed page", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.blog.blogger.service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blog.blogger.dto.CursorPage;
+import com.blog.blogger.dto.PostDTO;
+import com.blog.blogger.dto.ReplyDTO;
+import com.blog.blogger.dto.ReplyView;
+import com.blog.blogger.models.Comment;
+import com.blog.blogger.models.Response;
+import com.blog.blogger.models.User;
+import com.blog.blogger.repository.CommentRepository;
+import com.blog.blogger.repository.ResponseRepository;
+import com.blog.blogger.utils.KeysetCursor;
+
+import jakarta.validation.ValidationException;
+
+/**
+ * ReplyService - Replies to comments, stored as Response rows
+ *
+ * Replies are read oldest first: a comment's full thread is paged by
+ * (createdAt, id) keyset, and a page of comments gets its first
+ * replies.inline-limit replies from one batch query for all comments on it.
+ * comments.reply_count is updated atomically with every insert and delete, so
+ * clients know how many replies are left to load without counting.
+ */
+@Service
+public class ReplyService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_CONTENT_LENGTH = 2000;
+
+    private final ResponseRepository responseRepository;
+    private final CommentRepository commentRepository;
+    private final int inlineLimit;
+
+    public ReplyService(ResponseRepository responseRepository,
+                        CommentRepository commentRepository,
+                        @Value("${replies.inline-limit:3}") int inlineLimit) {
+        this.responseRepository = responseRepository;
+        this.commentRepository = commentRepository;
+        this.inlineLimit = inlineLimit;
+    }
+
+    public Optional<Response> getReplyById(Long replyId) {
+        return responseRepository.findById(replyId);
+    }
+
+    /**
+     * One page of a comment's replies, oldest first. The cursor is the
+     * (createdAt, id) of the last reply of the previous page.
+     */
+    public CursorPage<ReplyDTO> getReplies(Long commentId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, limit + 1);
+
+        List<ReplyView> replies = position == null
+                ? responseRepository.findRepliesByCommentFirst(commentId, pageable)
+                : responseRepository.findRepliesByCommentAfter(commentId, position.createdAt(), position.id(), pageable);
+
+        String next = null;
+        if (replies.size() > limit) {
+            replies = replies.subList(0, limit);
+            ReplyView last = replies.get(limit - 1);
+            next = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(replies.stream().map(ReplyDTO::from).toList(), next);
+    }
+
+    /**
+     * The first replies of each comment, keyed by comment id, in a single query.
+     * Comments without replies are absent from the map.
+     */
+    public Map<Long, List<ReplyDTO>> getFirstReplies(Collection<Long> commentIds) {
+        if (commentIds.isEmpty() || inlineLimit <= 0) {
+            return Map.of();
+        }
+        return responseRepository.findFirstRepliesByCommentIds(commentIds, inlineLimit).stream()
+                .map(ReplyDTO::from)
+                .collect(Collectors.groupingBy(ReplyDTO::getCommentId, LinkedHashMap::new, Collectors.toList()));
+    }
+
+    @Transactional
+    public ReplyDTO addReply(Comment comment, User author, String content) {
+        String text = content == null ? "" : content.trim();
+        if (text.isEmpty()) {
+            throw new ValidationException("Reply must not be empty");
+        }
+        if (text.length() > MAX_CONTENT_LENGTH) {
+            throw new ValidationException("Reply must not exceed " + MAX_CONTENT_LENGTH + " characters");
+        }
+
+        Response saved = responseRepository.save(Response.builder()
+                .content(text)
+                .author(author)
+                .comment(comment)
+                .build());
+        commentRepository.addToReplyCount(comment.getId(), 1);
+
+        return ReplyDTO.builder()
+                .id(saved.getId())
+                .commentId(comment.getId())
+                .content(saved.getContent())
+                .author(PostDTO.AuthorDTO.builder()
+                        .id(author.getId())
+                        .username(author.getUsername())
+                        .fullName(author.getFullName())
+                        .avatar(author.getAvatar())
+                        .profilePictureUrl(author.getProfilePictureUrl())
+                        .build())
+                .createdAt(saved.getCreatedAt())
+                .updatedAt(saved.getUpdatedAt())
+                .build();
+    }
+
+    @Transactional
+    public void deleteReply(Response reply) {
+        responseRepository.delete(reply);
+        commentRepository.addToReplyCount(reply.getComment().getId(), -1);
+    }
+}
@@ -1,5 +1,6 @@
 package com.blog.blogger.service;
 
+import com.blog.blogger.events.UserFollowedEvent;
 import com.blog.blogger.models.Subscription;
 import com.blog.blogger.models.User;
 import com.blog.blogger.repository.SubscriptionRepository;
@@ -23,7 +24,13 @@ public class SubscriptionService {
     private UserRepository userRepository;
 
     @Autowired
-    private com.blog.blogger.services.NotificationService notificationService;
+    private OutboxService outboxService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private FeedService feedService;
 
     @Transactional
     public Subscription followUser(String currentUsername, Long userIdToFollow) {
@@ -50,8 +57,11 @@ public class SubscriptionService {
 
         Subscription savedSubscription = subscriptionRepository.save(subscription);
 
-        
-        notificationService.notifyUserAboutNewFollower(following, follower);
+        // Rebuild the follower's timeline on next read so it includes the new author's posts
+        timelineService.evict(follower.getId());
+        feedService.followerAddedAfterCommit(following.getId());
+
+        outboxService.record(new UserFollowedEvent(follower.getId(), follower.getUsername(), following.getId()));
 
         return savedSubscription;
     }
@@ -65,7 +75,10 @@ public class SubscriptionService {
         User following = userRepository.findById(userIdToUnfollow)
                 .orElseThrow(() -> new RuntimeException("User to unfollow not found"));
 
-        subscriptionRepository.deleteByFollowerAndFollowing(follower, following);
+        if (subscriptionRepository.existsByFollowerAndFollowing(follower, following)) {
+            subscriptionRepository.deleteByFollowerAndFollowing(follower, following);
+            feedService.followerRemovedAfterCommit(following.getId());
+        }
     }
 
     public boolean isFollowing(String currentUsername, Long userId) {
@@ -0,0 +1,121 @@
+package com.blog.blogger.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.dto.TagCountDTO;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.utils.AfterCommit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * TagService - Number of visible posts per tag, for tag clouds and autocomplete
+ *
+ * Counts live in a sorted map so a prefix lookup is a range scan. PostService
+ * and PostPurgeService adjust them after commit whenever a visible post gains or
+ * loses tags (create, edit, hide, unhide, delete); the map is rebuilt from
+ * post_tags at startup and every tags.recount-ms to repair any drift.
+ *
+ * Metrics:
+ * - tags.distinct: tags with at least one visible post
+ */
+@Service
+public class TagService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private static final Comparator<Map.Entry<String, Integer>> MOST_USED =
+            Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final PostRepository postRepository;
+    private volatile ConcurrentSkipListMap<String, Integer> counts = new ConcurrentSkipListMap<>();
+
+    public TagService(PostRepository postRepository, MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        Gauge.builder("tags.distinct", this, service -> service.counts.size())
+                .description("Tags used by at least one visible post")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Same normalization as stored tags, so a tag typed in a URL finds its posts.
+     */
+    public static String normalize(String tag) {
+        return tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${tags.recount-ms:3600000}", fixedDelayString = "${tags.recount-ms:3600000}")
+    public void recount() {
+        ConcurrentSkipListMap<String, Integer> fresh = new ConcurrentSkipListMap<>();
+        for (Object[] row : postRepository.countVisibleTags()) {
+            fresh.put((String) row[0], ((Number) row[1]).intValue());
+        }
+        counts = fresh;
+    }
+
+    /**
+     * The most used tags, optionally only those starting with prefix.
+     */
+    public List<TagCountDTO> topTags(String prefix, int limit) {
+        int n = Math.max(1, Math.min(limit, MAX_LIMIT));
+        String start = normalize(prefix);
+        NavigableMap<String, Integer> range = start.isEmpty()
+                ? counts
+                : counts.subMap(start, true, start + Character.MAX_VALUE, false);
+
+        // Min-heap of the n most used tags seen so far
+        PriorityQueue<Map.Entry<String, Integer>> best = new PriorityQueue<>(n + 1, MOST_USED.reversed());
+        for (Map.Entry<String, Integer> entry : range.entrySet()) {
+            best.add(Map.entry(entry.getKey(), entry.getValue()));
+            if (best.size() > n) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<String, Integer>> top = new ArrayList<>(best);
+        top.sort(MOST_USED);
+        return top.stream().map(entry -> new TagCountDTO(entry.getKey(), entry.getValue())).toList();
+    }
+
+    public void addAfterCommit(Collection<String> tags) {
+        adjustAfterCommit(List.copyOf(tags), List.of());
+    }
+
+    public void removeAfterCommit(Collection<String> tags) {
+        adjustAfterCommit(List.of(), List.copyOf(tags));
+    }
+
+    public void replaceAfterCommit(Collection<String> oldTags, Collection<String> newTags) {
+        List<String> added = newTags.stream().filter(tag -> !oldTags.contains(tag)).toList();
+        List<String> removed = oldTags.stream().filter(tag -> !newTags.contains(tag)).toList();
+        adjustAfterCommit(added, removed);
+    }
+
+    private void adjustAfterCommit(List<String> added, List<String> removed) {
+        if (added.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> adjust(added, removed));
+    }
+
+    private void adjust(List<String> added, List<String> removed) {
+        ConcurrentSkipListMap<String, Integer> current = counts;
+        added.forEach(tag -> current.merge(tag, 1, Integer::sum));
+        // A count reaching zero removes the tag
+        removed.forEach(tag -> current.computeIfPresent(tag, (key, count) -> count > 1 ? count - 1 : null));
+    }
+}
@@ -0,0 +1,202 @@
+package com.blog.blogger.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.dto.PostSummaryView;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.utils.KeysetCursor;
+import com.blog.blogger.utils.LongRingBuffer;
+
+/**
+ * TimelineService - Materialized "following" feed (fan-out on write)
+ *
+ * Each user who has read their following feed gets a bounded ring of the newest
+ * post ids from the authors they follow, each stored with its post's creation
+ * time. New posts are pushed into the rings of the author's followers, so
+ * reading the feed is a walk over the ring plus one batched hydration query
+ * instead of an IN over every followed author. Fan-outs finish out of creation
+ * order, so reads filter and sort the ring by (createdAt, id), the order of the
+ * feed's cursor, rather than trusting ring order or ids.
+ *
+ * Deleted and unfollowed entries are not removed eagerly: they are pruned the
+ * next time a read comes across them. Hidden posts are skipped but kept, since
+ * they may be unhidden; FeedService pushes an unhidden post again for timelines
+ * built while it was hidden. A timeline is published before it is loaded and
+ * locked until the load is done, so a fan-out that runs meanwhile waits for it
+ * instead of missing it. Paging and the merge with pulled authors live in
+ * FeedService.
+ */
+@Service
+public class TimelineService {
+
+    private record Entry(long timeKey, long postId) {
+    }
+
+    private static final Comparator<Entry> NEWEST_FIRST =
+            Comparator.comparingLong(Entry::timeKey).thenComparingLong(Entry::postId).reversed();
+
+    private final PostRepository postRepository;
+    private final int capacity;
+    private final Map<Long, LongRingBuffer> timelines;
+
+    public TimelineService(PostRepository postRepository,
+                           @Value("${timeline.capacity:800}") int capacity,
+                           @Value("${timeline.max-users:10000}") int maxUsers) {
+        this.postRepository = postRepository;
+        this.capacity = capacity;
+        // Least recently read timelines are dropped first; they are rebuilt on demand
+        this.timelines = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, LongRingBuffer> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    /**
+     * Push a new post into the timelines of its author's followers. Called by
+     * NewPostFanOut after the post has committed, so readers never see an uncommitted id.
+     */
+    public void fanOut(Long postId, LocalDateTime createdAt, List<Long> followerIds) {
+        long timeKey = KeysetCursor.timeKey(createdAt);
+        for (Long followerId : followerIds) {
+            // Only materialized timelines are updated; the others are built from the database on first read
+            LongRingBuffer timeline = timelines.get(followerId);
+            if (timeline != null) {
+                synchronized (timeline) {
+                    // A retried fan-out pushes the same post again
+                    if (!timeline.contains(postId)) {
+                        timeline.add(postId, timeKey);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop a user's timeline, e.g. after they follow someone new, so the next read
+     * rebuilds it with that author's existing posts.
+     */
+    public void evict(Long userId) {
+        timelines.remove(userId);
+    }
+
+    /**
+     * Drop the timelines of several users, e.g. the followers of an author who
+     * went back from pull to push.
+     */
+    public void evict(Collection<Long> userIds) {
+        userIds.forEach(timelines::remove);
+    }
+
+    /**
+     * Up to {@code count} live posts from the user's timeline that are older than
+     * {@code position}, newest first. Entries whose post is gone or whose author
+     * is no longer in {@code following} are pruned from the ring on the way;
+     * hidden posts are only skipped.
+     *
+     * @param excludedAuthors authors left out when the ring has to be built, because
+     *                        the caller reads their posts some other way
+     */
+    public List<PostSummaryView> readTimeline(Long userId, Set<Long> following, Set<Long> excludedAuthors,
+                                   KeysetCursor position, int count) {
+        LongRingBuffer timeline = timelineFor(userId, following, excludedAuthors);
+        long[] ids;
+        long[] timeKeys;
+        synchronized (timeline) {
+            ids = timeline.newestFirst();
+            timeKeys = timeline.keysNewestFirst();
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (position == null || position.precedes(timeKeys[i], ids[i])) {
+                entries.add(new Entry(timeKeys[i], ids[i]));
+            }
+        }
+        entries.sort(NEWEST_FIRST);
+        List<Long> candidates = entries.stream().map(Entry::postId).toList();
+
+        List<PostSummaryView> posts = new ArrayList<>();
+        Set<Long> stale = new HashSet<>();
+        int index = 0;
+
+        // Hydrate just enough ids to fill the page; keep going only if some turned out stale
+        while (posts.size() < count && index < candidates.size()) {
+            int end = Math.min(candidates.size(), index + (count - posts.size()));
+            List<Long> batch = candidates.subList(index, end);
+            Map<Long, PostSummaryView> found = postRepository.findSummariesByIdIn(batch).stream()
+                    .collect(Collectors.toMap(PostSummaryView::getId, Function.identity()));
+
+            for (Long id : batch) {
+                PostSummaryView post = found.get(id);
+                if (post == null || !following.contains(post.getAuthorId())) {
+                    stale.add(id);
+                } else if (!Boolean.TRUE.equals(post.getIsHidden())) {
+                    posts.add(post);
+                }
+            }
+            index = end;
+        }
+
+        if (!stale.isEmpty()) {
+            synchronized (timeline) {
+                timeline.removeIf(stale::contains);
+            }
+        }
+        return posts;
+    }
+
+    private LongRingBuffer timelineFor(Long userId, Set<Long> following, Set<Long> excludedAuthors) {
+        LongRingBuffer timeline = timelines.get(userId);
+        if (timeline != null) {
+            return timeline;
+        }
+
+        LongRingBuffer built = new LongRingBuffer(capacity);
+        // Published while locked: fan-outs and readers of this user wait for the load.
+        // A post whose fan-out ran before publication had committed, so the query sees it.
+        synchronized (built) {
+            LongRingBuffer existing = timelines.putIfAbsent(userId, built);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                load(built, following, excludedAuthors);
+            } catch (RuntimeException e) {
+                timelines.remove(userId, built);
+                throw e;
+            }
+        }
+        return built;
+    }
+
+    private void load(LongRingBuffer timeline, Set<Long> following, Set<Long> excludedAuthors) {
+        List<Long> followingIds = following.stream()
+                .filter(authorId -> !excludedAuthors.contains(authorId))
+                .toList();
+        if (followingIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = postRepository.findVisibleIdsByAuthorIds(followingIds, PageRequest.of(0, capacity));
+        // Oldest first, so the newest post ends up at the head of the ring
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            timeline.add((Long) rows.get(i)[0], KeysetCursor.timeKey((LocalDateTime) rows.get(i)[1]));
+        }
+    }
+}
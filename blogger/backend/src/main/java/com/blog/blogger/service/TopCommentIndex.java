@@ -0,0 +1,204 @@
+package com.blog.blogger.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.repository.CommentRepository;
+import com.blog.blogger.utils.AfterCommit;
+import com.blog.blogger.utils.TopKScores;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * TopCommentIndex - In-process "top" ordering of each post's comments
+ *
+ * For each recently used post, its comments.top.tracked best comments are kept
+ * in a TopKScores. Like HotPostService, a comment's score is its creation plus
+ * its likes, each decayed with a half-life of comments.top.half-life-hours: an
+ * event at time t adds 2^((t - epoch) / halfLife), so recent likes count more
+ * and the scores never need recomputing. The epoch is the ranking's load time;
+ * rankings are reloaded long before their scores could grow large, so unlike
+ * HotPostService they need no rebase. Newer comments come first on equal scores.
+ *
+ * A post's ranking is loaded on first use from its most liked comments
+ * (idx_comments_post_likes_id) and its newest ones (idx_comments_post_created_id),
+ * both index range reads, plus the like deltas not yet flushed. Loaded likes
+ * count at the comment's creation time: an approximation that later likes
+ * refine, and the reason an unlike never takes a comment below the weight of
+ * its creation. The ranking is then kept current by comment likes, unlikes,
+ * additions and deletions after their transactions commit. Rankings of posts
+ * not in memory are left alone; they load the committed rows when next used.
+ *
+ * The ranking is bounded, so a tracked comment that loses likes or is deleted
+ * can leave out a comment that was just below the cut. Each ranking is
+ * therefore reloaded comments.top.ttl-seconds after it was loaded, however
+ * often it is updated; the least recently used posts are dropped beyond
+ * comments.top.max-posts.
+ *
+ * Exported as cache.* metrics with cache=top-comments.
+ */
+@Service
+public class TopCommentIndex {
+
+    private static final double MILLIS_PER_HOUR = 3_600_000d;
+
+    // Scores are relative to the epoch, the time the ranking was loaded
+    private record Ranking(TopKScores scores, long epochMs) {
+
+        // 2^((t - epoch) / halfLife), kept above zero so that very old comments stay
+        // ranked (TopKScores drops scores <= 0)
+        double growth(long timeMs, double halfLifeMs) {
+            return Math.max(Math.pow(2, (timeMs - epochMs) / halfLifeMs), Double.MIN_NORMAL);
+        }
+    }
+
+    private final CommentRepository commentRepository;
+    private final CommentLikeCounterService commentLikeCounterService;
+    private final Cache<Long, Ranking> rankings;
+    private final int tracked;
+    private final double halfLifeMs;
+
+    public TopCommentIndex(CommentRepository commentRepository,
+                           CommentLikeCounterService commentLikeCounterService,
+                           MeterRegistry meterRegistry,
+                           @Value("${comments.top.max-posts:5000}") long maxPosts,
+                           @Value("${comments.top.tracked:100}") int tracked,
+                           @Value("${comments.top.ttl-seconds:600}") long ttlSeconds,
+                           @Value("${comments.top.half-life-hours:168}") double halfLifeHours) {
+        this.commentRepository = commentRepository;
+        this.commentLikeCounterService = commentLikeCounterService;
+        this.tracked = tracked;
+        this.halfLifeMs = halfLifeHours * MILLIS_PER_HOUR;
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.rankings = Caffeine.newBuilder()
+                .maximumSize(maxPosts)
+                .expireAfter(Expiry.<Long, Ranking>creating((postId, ranking) -> ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rankings, "top-comments");
+    }
+
+    /**
+     * Comment ids ranked offset .. offset + limit - 1 of the post, best first.
+     * Nothing is returned past the comments.top.tracked best.
+     */
+    public List<Long> topIds(Long postId, int offset, int limit) {
+        TopKScores scores = rankings.get(postId, this::load).scores();
+        synchronized (scores) {
+            return scores.top(offset, limit);
+        }
+    }
+
+    /**
+     * Record a like once the surrounding transaction commits. A comment outside
+     * the ranking enters with likeCount, the count the caller read including the
+     * like, counted at its creation time like a loaded one.
+     */
+    public void likeAfterCommit(Long postId, Long commentId, LocalDateTime createdAt, long likeCount) {
+        AfterCommit.run(() -> rankings.asMap().computeIfPresent(postId, (id, ranking) -> {
+            TopKScores scores = ranking.scores();
+            synchronized (scores) {
+                if (scores.score(commentId) > 0) {
+                    scores.add(commentId, ranking.growth(System.currentTimeMillis(), halfLifeMs));
+                } else {
+                    scores.add(commentId, score(ranking, createdAt, likeCount));
+                }
+            }
+            return ranking;
+        }));
+    }
+
+    /**
+     * Take back a like made at likedAt once the surrounding transaction commits,
+     * keeping at least the weight of the comment's creation. A comment outside
+     * the ranking enters with likeCount, the count the caller read after the unlike.
+     */
+    public void unlikeAfterCommit(Long postId, Long commentId, LocalDateTime createdAt, LocalDateTime likedAt,
+                                  long likeCount) {
+        AfterCommit.run(() -> rankings.asMap().computeIfPresent(postId, (id, ranking) -> {
+            TopKScores scores = ranking.scores();
+            synchronized (scores) {
+                if (scores.score(commentId) > 0) {
+                    scores.subtract(commentId, ranking.growth(toMillis(likedAt), halfLifeMs),
+                            ranking.growth(toMillis(createdAt), halfLifeMs));
+                } else {
+                    scores.add(commentId, score(ranking, createdAt, likeCount));
+                }
+            }
+            return ranking;
+        }));
+    }
+
+    public void addAfterCommit(Long postId, Long commentId) {
+        AfterCommit.run(() -> rankings.asMap().computeIfPresent(postId, (id, ranking) -> {
+            TopKScores scores = ranking.scores();
+            synchronized (scores) {
+                scores.add(commentId, ranking.growth(System.currentTimeMillis(), halfLifeMs));
+            }
+            return ranking;
+        }));
+    }
+
+    public void removeAfterCommit(Long postId, Long commentId) {
+        AfterCommit.run(() -> rankings.asMap().computeIfPresent(postId, (id, ranking) -> {
+            TopKScores scores = ranking.scores();
+            synchronized (scores) {
+                scores.remove(commentId);
+            }
+            return ranking;
+        }));
+    }
+
+    /**
+     * Drop the rankings of posts whose comments changed in bulk (purge, erasure).
+     */
+    public void invalidateAfterCommit(Collection<Long> postIds) {
+        List<Long> ids = List.copyOf(postIds);
+        AfterCommit.run(() -> rankings.invalidateAll(ids));
+    }
+
+    public void invalidate(Long postId) {
+        rankings.invalidate(postId);
+    }
+
+    private Ranking load(Long postId) {
+        Ranking ranking = new Ranking(new TopKScores(tracked), System.currentTimeMillis());
+        PageRequest window = PageRequest.of(0, tracked);
+        addRows(ranking, commentRepository.findMostLikedByPost(postId, window));
+        // A recent comment can outrank older ones with more likes
+        addRows(ranking, commentRepository.findNewestByPost(postId, window));
+        return ranking;
+    }
+
+    // Rows of [commentId, likeCount, createdAt]; a comment in both reads is added once
+    private void addRows(Ranking ranking, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Long commentId = (Long) row[0];
+            if (ranking.scores().score(commentId) > 0) {
+                continue;
+            }
+            long likes = ((Number) row[1]).longValue() + commentLikeCounterService.pending(commentId);
+            ranking.scores().add(commentId, score(ranking, (LocalDateTime) row[2], Math.max(0, likes)));
+        }
+    }
+
+    // The comment's creation plus its likes, all counted at its creation time
+    private double score(Ranking ranking, LocalDateTime createdAt, long likeCount) {
+        return (likeCount + 1) * ranking.growth(toMillis(createdAt), halfLifeMs);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -7,54 +7,36 @@ import java.util.stream.Collectors;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.blog.blogger.dto.ChangePasswordDTO;
 import com.blog.blogger.dto.UpdateProfileDTO;
 import com.blog.blogger.dto.UserProfileDTO;
+import com.blog.blogger.models.ErasureJob;
 import com.blog.blogger.models.Role;
 import com.blog.blogger.models.User;
-import com.blog.blogger.repositories.NotificationRepository;
-import com.blog.blogger.repository.CommentLikeRepository;
-import com.blog.blogger.repository.CommentRepository;
-import com.blog.blogger.repository.PostLikeRepository;
-import com.blog.blogger.repository.PostRepository;
-import com.blog.blogger.repository.ReportRepository;
-import com.blog.blogger.repository.SubscriptionRepository;
 import com.blog.blogger.repository.UserRepository;
+import com.blog.blogger.utils.SingleFlight;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final PostRepository postRepository;
-    private final CommentRepository commentRepository;
-    private final PostLikeRepository postLikeRepository;
-    private final CommentLikeRepository commentLikeRepository;
-    private final SubscriptionRepository subscriptionRepository;
-    private final NotificationRepository notificationRepository;
-    private final ReportRepository reportRepository;
+    private final AccountErasureService accountErasureService;
+    private final PostService postService;
+    private final SingleFlight<Long, UserProfileDTO> profileLoads;
 
     public UserService(
             UserRepository userRepository,
             PasswordEncoder passwordEncoder,
-            PostRepository postRepository,
-            CommentRepository commentRepository,
-            PostLikeRepository postLikeRepository,
-            CommentLikeRepository commentLikeRepository,
-            SubscriptionRepository subscriptionRepository,
-            NotificationRepository notificationRepository,
-            ReportRepository reportRepository) { // Fixed - only once!
+            AccountErasureService accountErasureService,
+            PostService postService,
+            SingleFlight<Long, UserProfileDTO> profileLoads) { // Fixed - only once!
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.postRepository = postRepository;
-        this.commentRepository = commentRepository;
-        this.postLikeRepository = postLikeRepository;
-        this.commentLikeRepository = commentLikeRepository;
-        this.subscriptionRepository = subscriptionRepository;
-        this.notificationRepository = notificationRepository;
-        this.reportRepository = reportRepository;
+        this.accountErasureService = accountErasureService;
+        this.postService = postService;
+        this.profileLoads = profileLoads;
     }
   
 
@@ -111,9 +93,14 @@ public class UserService {
   
 
     public UserProfileDTO getUserProfile(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
-        return convertToProfileDTO(user);
+        // Concurrent requests for the same profile share one lookup (and its "not found");
+        // each gets its own copy of the DTO
+        UserProfileDTO shared = profileLoads.load(id, () -> {
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+            return convertToProfileDTO(user);
+        });
+        return shared.toBuilder().build();
     }
 
     public UserProfileDTO updateProfile(Long id, UpdateProfileDTO dto) {
@@ -138,9 +125,18 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        // Posts embed their author, so cached posts and feed/post ETags must change too
+        postService.evictAuthor(id);
         return convertToProfileDTO(updatedUser);
     }
 
+    public User updateProfilePicture(User user, String profilePictureUrl) {
+        user.setProfilePictureUrl(profilePictureUrl);
+        User updatedUser = userRepository.save(user);
+        postService.evictAuthor(updatedUser.getId());
+        return updatedUser;
+    }
+
    
 
     public void changePassword(Long id, ChangePasswordDTO dto) {
@@ -168,64 +164,20 @@ public class UserService {
     }
 
     
-    @Transactional
-    public void deleteUser(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
-
-        notificationRepository.deleteByUser(user);
-
-        List<com.blog.blogger.models.Subscription> asFollower = subscriptionRepository.findByFollower(user);
-        subscriptionRepository.deleteAll(asFollower);
-
-        
-        List<com.blog.blogger.models.Subscription> asFollowing = subscriptionRepository.findByFollowing(user);
-        subscriptionRepository.deleteAll(asFollowing);
-
-      
-        List<com.blog.blogger.models.PostLike> postLikes = postLikeRepository.findAll().stream()
-                .filter(like -> like.getUser().getId().equals(id))
-                .collect(Collectors.toList());
-        postLikeRepository.deleteAll(postLikes);
-
-        
-        List<com.blog.blogger.models.CommentLike> commentLikes = commentLikeRepository.findAll().stream()
-                .filter(like -> like.getUser().getId().equals(id))
-                .collect(Collectors.toList());
-        commentLikeRepository.deleteAll(commentLikes);
-
-        
-        // List<com.blog.blogger.models.Message> sentMessages = messageRepository.findBySenderOrderByCreatedAtDesc(user);
-        // messageRepository.deleteAll(sentMessages);
-
-  
-        // List<com.blog.blogger.models.Message> receivedMessages = messageRepository.findByReceiverOrderByCreatedAtDesc(user);
-        // messageRepository.deleteAll(receivedMessages);
-
-        notificationRepository.deleteByUser(user);
-
-        List<com.blog.blogger.models.Post> posts = postRepository.findByAuthor(user);
-        for (com.blog.blogger.models.Post post : posts) {
-            postLikeRepository.deleteByPost(post);
-
-            List<com.blog.blogger.models.Comment> postComments = commentRepository.findByPost(post);
-            for (com.blog.blogger.models.Comment comment : postComments) {
-                commentLikeRepository.deleteByComment(comment);
-            }
-            commentRepository.deleteAll(postComments);
-            reportRepository.deleteByPost(post);
-        }
-        postRepository.deleteAll(posts);
-
-        reportRepository.deleteByReporter(user);
+    /**
+     * Queue the deletion of a user and all their data; see AccountErasureService.
+     * The account is banned immediately and removed by a background job.
+     */
+    public ErasureJob deleteUser(Long id, Long requestedBy) {
+        return accountErasureService.requestErasure(id, requestedBy);
+    }
 
-        List<com.blog.blogger.models.Comment> comments = commentRepository.findAll().stream()
-                .filter(comment -> comment.getAuthor().getId().equals(id))
-                .collect(Collectors.toList());
-        commentRepository.deleteAll(comments);
+    public ErasureJob getErasureJob(Long jobId) {
+        return accountErasureService.getJob(jobId);
+    }
 
-        
-        userRepository.delete(user);
+    public ErasureJob getLatestErasureJob(Long userId) {
+        return accountErasureService.getLatestJobForUser(userId);
     }
 
     public void banUser(Long id) {
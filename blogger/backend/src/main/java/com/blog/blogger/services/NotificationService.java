@@ -1,65 +1,80 @@
 package com.blog.blogger.services;
 
+import com.blog.blogger.events.CommentAddedEvent;
+import com.blog.blogger.events.PostPublishedEvent;
+import com.blog.blogger.events.UserFollowedEvent;
 import com.blog.blogger.models.Notification;
 import com.blog.blogger.models.Post;
 import com.blog.blogger.models.User;
 import com.blog.blogger.repositories.NotificationRepository;
+import com.blog.blogger.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
+    // Outbox consumers are retried, so their rows are keyed on (event_id, user_id) and a second insert is skipped
+    private static final String INSERT_FROM_EVENT =
+            "INSERT IGNORE INTO notifications (user_id, message, type, related_post_id, related_user_id, event_id, is_read, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, false, ?)";
+
     private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${notifications.batch-size:500}")
+    private int batchSize;
 
     /**
-     * 
-     * 
-     * @param post 
-     * @param followers
+     * Write one NEW_POST notification per recipient as JDBC batches of
+     * notifications.batch-size rows (one multi-row INSERT each with
+     * rewriteBatchedStatements). Called by NewPostFanOut from the outbox;
+     * recipients already notified for this event are skipped.
+     *
+     * @param eventId the POST_PUBLISHED outbox event
+     * @param event the published post
+     * @param recipientIds followers to notify, already filtered for bans
+     * @return number of notifications written
      */
-    @Transactional
-    public void notifyFollowersAboutNewPost(Post post, List<User> followers) {
-        User author = post.getAuthor();
-
-        for (User follower : followers) {
-            
-            if (follower.getIsBanned()) {
-                continue;
-            }
-
-            Notification notification = new Notification();
-            notification.setUser(follower);
-            notification.setMessage(author.getUsername() + " published a new post: " + post.getTitle());
-            notification.setType(Notification.NotificationType.NEW_POST);
-            notification.setRelatedPostId(post.getId());
-            notification.setRelatedUserId(author.getId());
-
-            notificationRepository.save(notification);
-        }
+    public int notifyFollowersAboutNewPost(Long eventId, PostPublishedEvent event, List<Long> recipientIds) {
+        String message = event.authorUsername() + " published a new post: " + event.title();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[][] written = jdbcTemplate.batchUpdate(INSERT_FROM_EVENT, recipientIds, batchSize, (ps, recipientId) -> {
+            ps.setLong(1, recipientId);
+            ps.setString(2, message);
+            ps.setString(3, Notification.NotificationType.NEW_POST.name());
+            ps.setLong(4, event.postId());
+            ps.setLong(5, event.authorId());
+            ps.setLong(6, eventId);
+            ps.setTimestamp(7, now);
+        });
+        // SUCCESS_NO_INFO (-2) when the driver rewrote the batch; 0 for a skipped duplicate
+        return Arrays.stream(written).flatMapToInt(Arrays::stream).map(count -> count == 0 ? 0 : 1).sum();
     }
 
    
-    @Transactional
-    public void notifyUserAboutNewFollower(User followedUser, User follower) {
-        
-        if (followedUser.getIsBanned()) {
+    public void notifyUserAboutNewFollower(Long eventId, UserFollowedEvent event) {
+        User followedUser = userRepository.findById(event.followingId()).orElse(null);
+        if (followedUser == null || Boolean.TRUE.equals(followedUser.getIsBanned())) {
             return;
         }
 
-        Notification notification = new Notification();
-        notification.setUser(followedUser);
-        notification.setMessage(follower.getUsername() + " started following you");
-        notification.setType(Notification.NotificationType.NEW_FOLLOWER);
-        notification.setRelatedUserId(follower.getId());
-
-        notificationRepository.save(notification);
+        jdbcTemplate.update(INSERT_FROM_EVENT, followedUser.getId(), event.followerUsername() + " started following you",
+                Notification.NotificationType.NEW_FOLLOWER.name(), null, event.followerId(), eventId,
+                Timestamp.valueOf(LocalDateTime.now()));
     }
 
    
@@ -86,28 +101,19 @@ public class NotificationService {
     }
 
   
-    @Transactional
-    public void notifyUserAboutComment(Post post, User commenter) {
-        User postAuthor = post.getAuthor();
-
-      
-        if (postAuthor.getId().equals(commenter.getId())) {
+    public void notifyUserAboutComment(Long eventId, CommentAddedEvent event) {
+        if (event.postAuthorId().equals(event.commenterId())) {
             return;
         }
 
-        
-        if (postAuthor.getIsBanned()) {
+        User postAuthor = userRepository.findById(event.postAuthorId()).orElse(null);
+        if (postAuthor == null || Boolean.TRUE.equals(postAuthor.getIsBanned())) {
             return;
         }
 
-        Notification notification = new Notification();
-        notification.setUser(postAuthor);
-        notification.setMessage(commenter.getUsername() + " commented on your post: " + post.getTitle());
-        notification.setType(Notification.NotificationType.COMMENT);
-        notification.setRelatedPostId(post.getId());
-        notification.setRelatedUserId(commenter.getId());
-
-        notificationRepository.save(notification);
+        jdbcTemplate.update(INSERT_FROM_EVENT, postAuthor.getId(), event.commenterUsername() + " commented on your post: " + event.postTitle(),
+                Notification.NotificationType.COMMENT.name(), event.postId(), event.commenterId(), eventId,
+                Timestamp.valueOf(LocalDateTime.now()));
     }
 
   
@@ -0,0 +1,48 @@
+package com.blog.blogger.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * AfterCommit - Defers an in-memory update until the current transaction commits
+ *
+ * Caches, counters and indexes kept in memory must not show a change that is
+ * later rolled back, nor be overwritten by a reader that loaded the row before
+ * the commit. Services hand such updates to {@link #run}; without a transaction
+ * they run right away.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Run the action once the current transaction ends, committed or rolled back
+     * (e.g. a cache eviction that must also follow a rollback); right away without one.
+     */
+    public static void runAfterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.blog.blogger.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+
+import com.blog.blogger.models.Post;
+import com.blog.blogger.models.User;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * ETags - Validators for conditional GETs, derived from versions already at hand
+ *
+ * All tags are weak: they say the representation is equivalent, not that the
+ * JSON is byte-for-byte identical, so Jackson settings can change freely.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * A post's JSON changes with its own updatedAt, its counters (which do not touch
+     * updatedAt), its visibility and its author's profile.
+     */
+    public static String forPost(Post post) {
+        User author = post.getAuthor();
+        return weak("post-" + post.getId() + "-" + millis(post.getUpdatedAt()) + "-" + post.getLikeCount()
+                + "-" + post.getCommentCount() + "-" + Boolean.TRUE.equals(post.getIsHidden())
+                + "-" + (author == null ? 0 : millis(author.getUpdatedAt())));
+    }
+
+    public static String forUser(Long userId, LocalDateTime updatedAt) {
+        return weak("user-" + userId + "-" + millis(updatedAt));
+    }
+
+    /**
+     * Let the client keep the response but revalidate it on every use. Set before
+     * the body is written so Spring Security's default "no-store" is not applied.
+     */
+    public static void requireRevalidation(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+    }
+
+    public static String weak(String value) {
+        return "W/\"" + value + "\"";
+    }
+
+    /** Epoch millis of a timestamp, or -1 when it is unknown. */
+    public static long millis(LocalDateTime time) {
+        return time == null ? -1 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
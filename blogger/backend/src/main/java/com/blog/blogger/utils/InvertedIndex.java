@@ -0,0 +1,325 @@
+package com.blog.blogger.utils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * InvertedIndex - Compact term -&gt; documents index with BM25 ranking
+ *
+ * Every stored version of a document gets a new int ordinal; postings are
+ * parallel int (ordinal) and byte (term frequency) arrays per term. Replacing
+ * or removing a document only clears its ordinal in the live set, and its old
+ * postings are skipped until {@link #compact()} drops them. Document
+ * frequencies count those dead postings too, which slightly skews idf until
+ * the next compaction. Not thread-safe: callers synchronize.
+ */
+public class InvertedIndex {
+
+    public record Hit(long id, float score) {
+    }
+
+    /** Highest score first, then highest id: the order of search results. */
+    public static final Comparator<Hit> RANKING =
+            Comparator.<Hit>comparingDouble(Hit::score).reversed().thenComparing(Comparator.<Hit>comparingLong(Hit::id).reversed());
+
+    private static final int MAGIC = 0x53524348;  // "SRCH"
+    private static final int VERSION = 1;
+    private static final int MAX_TF = Byte.MAX_VALUE;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        byte[] tfs = new byte[4];
+        int size;
+
+        void add(int doc, int tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = doc;
+            tfs[size] = (byte) Math.min(tf, MAX_TF);
+            size++;
+        }
+    }
+
+    // Open-addressing int -> float map; empty slots hold -1
+    private static final class ScoreTable {
+        final int[] keys;
+        final float[] values;
+        final int mask;
+
+        ScoreTable(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1;
+            keys = new int[capacity];
+            values = new float[capacity];
+            mask = capacity - 1;
+            Arrays.fill(keys, -1);
+        }
+
+        void add(int key, float value) {
+            int slot = (key * 0x9E3779B9) & mask;
+            while (keys[slot] != -1 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] += value;
+        }
+    }
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private long[] ids = new long[1024];
+    private int[] lengths = new int[1024];
+    private int nextOrdinal;
+    private long totalLength;
+
+    /**
+     * Index a document, replacing any previous version with the same id.
+     *
+     * @param termFreqs weighted frequency of every term in the document
+     * @param length document length in tokens, for length normalization
+     */
+    public void put(long id, Map<String, Integer> termFreqs, int length) {
+        remove(id);
+        if (termFreqs.isEmpty()) {
+            return;
+        }
+        int ordinal = nextOrdinal++;
+        if (ordinal == ids.length) {
+            ids = Arrays.copyOf(ids, ordinal * 2);
+            lengths = Arrays.copyOf(lengths, ordinal * 2);
+        }
+        ids[ordinal] = id;
+        lengths[ordinal] = length;
+        live.set(ordinal);
+        ordinals.put(id, ordinal);
+        totalLength += length;
+        termFreqs.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new Postings()).add(ordinal, tf));
+    }
+
+    public boolean remove(long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return false;
+        }
+        live.clear(ordinal);
+        totalLength -= lengths[ordinal];
+        return true;
+    }
+
+    public boolean contains(long id) {
+        return ordinals.containsKey(id);
+    }
+
+    public int size() {
+        return ordinals.size();
+    }
+
+    /** Ids of all indexed documents, ascending. */
+    public long[] sortedIds() {
+        long[] result = new long[ordinals.size()];
+        int i = 0;
+        for (Long id : ordinals.keySet()) {
+            result[i++] = id;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /** Ordinals of replaced or removed documents still taking space in postings. */
+    public int deadDocuments() {
+        return nextOrdinal - ordinals.size();
+    }
+
+    /**
+     * BM25 search, term at a time: the top limit documents containing any of the
+     * terms, ranked by {@link #RANKING}, strictly after the given hit (or from
+     * the top when after is null).
+     */
+    public List<Hit> search(List<String> terms, int limit, Hit after) {
+        if (ordinals.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int docCount = ordinals.size();
+        float avgLength = Math.max(1f, (float) totalLength / docCount);
+        List<Postings> lists = new ArrayList<>();
+        List<Float> idfs = new ArrayList<>();
+        int candidates = 0;
+        for (String term : new LinkedHashSet<>(terms)) {
+            Postings list = postings.get(term);
+            if (list != null) {
+                lists.add(list);
+                idfs.add((float) Math.log(1 + (docCount - list.size + 0.5) / (list.size + 0.5)));
+                candidates += list.size;
+            }
+        }
+
+        // Score accumulators sized by the postings read, not by the whole index
+        ScoreTable scores = new ScoreTable(candidates);
+        for (int t = 0; t < lists.size(); t++) {
+            Postings list = lists.get(t);
+            float idf = idfs.get(t);
+            for (int i = 0; i < list.size; i++) {
+                int doc = list.docs[i];
+                if (!live.get(doc)) {
+                    continue;
+                }
+                int tf = list.tfs[i];
+                float norm = K1 * (1 - B + B * lengths[doc] / avgLength);
+                scores.add(doc, idf * tf * (K1 + 1) / (tf + norm));
+            }
+        }
+
+        // Min-heap holding the best limit hits seen so far
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (int slot = 0; slot < scores.keys.length; slot++) {
+            int doc = scores.keys[slot];
+            if (doc < 0) {
+                continue;
+            }
+            Hit hit = new Hit(ids[doc], scores.values[slot]);
+            if (after != null && RANKING.compare(hit, after) <= 0) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (RANKING.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return hits;
+    }
+
+    /**
+     * Drop dead postings and renumber the live documents densely.
+     */
+    public void compact() {
+        int[] remap = remap();
+        int count = ordinals.size();
+        long[] newIds = new long[Math.max(1024, count)];
+        int[] newLengths = new int[newIds.length];
+        for (int old = live.nextSetBit(0); old >= 0; old = live.nextSetBit(old + 1)) {
+            newIds[remap[old]] = ids[old];
+            newLengths[remap[old]] = lengths[old];
+        }
+
+        postings.values().removeIf(list -> {
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int old = list.docs[i];
+                if (live.get(old)) {
+                    list.docs[kept] = remap[old];
+                    list.tfs[kept] = list.tfs[i];
+                    kept++;
+                }
+            }
+            list.size = kept;
+            list.docs = Arrays.copyOf(list.docs, Math.max(kept, 1));
+            list.tfs = Arrays.copyOf(list.tfs, Math.max(kept, 1));
+            return kept == 0;
+        });
+
+        ordinals.replaceAll((id, old) -> remap[old]);
+        ids = newIds;
+        lengths = newLengths;
+        live.clear();
+        live.set(0, count);
+        nextOrdinal = count;
+    }
+
+    /**
+     * Write the live part of the index; {@link #readFrom} restores it compacted.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        int[] remap = remap();
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(ordinals.size());
+        for (int old = live.nextSetBit(0); old >= 0; old = live.nextSetBit(old + 1)) {
+            out.writeLong(ids[old]);
+            out.writeInt(lengths[old]);
+        }
+
+        List<Map.Entry<String, Postings>> terms = new ArrayList<>(postings.entrySet());
+        out.writeInt(terms.size());
+        for (Map.Entry<String, Postings> entry : terms) {
+            Postings list = entry.getValue();
+            int liveCount = 0;
+            for (int i = 0; i < list.size; i++) {
+                if (live.get(list.docs[i])) {
+                    liveCount++;
+                }
+            }
+            out.writeUTF(entry.getKey());
+            out.writeInt(liveCount);
+            for (int i = 0; i < list.size; i++) {
+                if (live.get(list.docs[i])) {
+                    out.writeInt(remap[list.docs[i]]);
+                    out.writeByte(list.tfs[i]);
+                }
+            }
+        }
+    }
+
+    public static InvertedIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a search index snapshot of version " + VERSION);
+        }
+        InvertedIndex index = new InvertedIndex();
+        int count = in.readInt();
+        index.ids = new long[Math.max(1024, count)];
+        index.lengths = new int[index.ids.length];
+        for (int doc = 0; doc < count; doc++) {
+            index.ids[doc] = in.readLong();
+            index.lengths[doc] = in.readInt();
+            index.ordinals.put(index.ids[doc], doc);
+            index.totalLength += index.lengths[doc];
+        }
+        index.live.set(0, count);
+        index.nextOrdinal = count;
+
+        int termCount = in.readInt();
+        for (int t = 0; t < termCount; t++) {
+            String term = in.readUTF();
+            int size = in.readInt();
+            Postings list = new Postings();
+            list.docs = new int[Math.max(size, 1)];
+            list.tfs = new byte[Math.max(size, 1)];
+            for (int i = 0; i < size; i++) {
+                list.docs[i] = in.readInt();
+                list.tfs[i] = in.readByte();
+            }
+            list.size = size;
+            if (size > 0) {
+                index.postings.put(term, list);
+            }
+        }
+        return index;
+    }
+
+    // Old ordinal -> dense new ordinal for every live document
+    private int[] remap() {
+        int[] remap = new int[nextOrdinal];
+        int next = 0;
+        for (int old = live.nextSetBit(0); old >= 0; old = live.nextSetBit(old + 1)) {
+            remap[old] = next++;
+        }
+        return remap;
+    }
+}
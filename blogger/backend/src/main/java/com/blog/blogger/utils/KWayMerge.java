@@ -0,0 +1,63 @@
+package com.blog.blogger.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * KWayMerge - Merges k individually sorted lists into one sorted list
+ *
+ * A heap holds the current head of each source, so producing n items costs
+ * O(n log k) comparisons. Items whose key was already emitted are skipped, which
+ * lets the same post arrive through more than one source.
+ */
+public final class KWayMerge {
+
+    private KWayMerge() {
+    }
+
+    /**
+     * @param items merged items, at most {@code limit}
+     * @param cost  number of heap operations performed (one offer or poll each)
+     */
+    public record Result<T>(List<T> items, int cost) {
+    }
+
+    public static <T> Result<T> merge(List<List<T>> sources, Comparator<T> order,
+                                      Function<T, ?> key, int limit) {
+        record Head<T>(T item, Iterator<T> rest) {
+        }
+
+        PriorityQueue<Head<T>> heap = new PriorityQueue<>(Math.max(1, sources.size()),
+                (a, b) -> order.compare(a.item(), b.item()));
+        int cost = 0;
+
+        for (List<T> source : sources) {
+            Iterator<T> iterator = source.iterator();
+            if (iterator.hasNext()) {
+                heap.offer(new Head<>(iterator.next(), iterator));
+                cost++;
+            }
+        }
+
+        List<T> merged = new ArrayList<>(limit);
+        Set<Object> seen = new HashSet<>();
+        while (!heap.isEmpty() && merged.size() < limit) {
+            Head<T> head = heap.poll();
+            cost++;
+            if (seen.add(key.apply(head.item()))) {
+                merged.add(head.item());
+            }
+            if (head.rest().hasNext()) {
+                heap.offer(new Head<>(head.rest().next(), head.rest()));
+                cost++;
+            }
+        }
+        return new Result<>(merged, cost);
+    }
+}
@@ -0,0 +1,65 @@
+package com.blog.blogger.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import jakarta.validation.ValidationException;
+
+/**
+ * KeysetCursor - Opaque (createdAt, id) position used by cursor-paginated endpoints
+ *
+ * The cursor points at the last row of the previous page; the next page is every
+ * row strictly older than it in (createdAt DESC, id DESC) order. Clients only ever
+ * see the Base64 token, so the encoding can change without breaking them.
+ */
+public record KeysetCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * createdAt as one long (nanoseconds since the epoch, read as UTC) that
+     * orders like the LocalDateTime, for callers that store times unboxed.
+     */
+    public static long timeKey(LocalDateTime createdAt) {
+        return createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + createdAt.getNano();
+    }
+
+    /**
+     * Whether this position comes before a row at (timeKey, id) in
+     * (createdAt DESC, id DESC) order, i.e. the row belongs to a later page.
+     */
+    public boolean precedes(long rowTimeKey, long rowId) {
+        long key = timeKey(createdAt);
+        return rowTimeKey < key || (rowTimeKey == key && rowId < id);
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     * Returns null for a blank token, which means "start from the newest row".
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.blog.blogger.utils;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * LongRingBuffer - Fixed-capacity ring of primitive longs
+ *
+ * Once full, adding a value overwrites the oldest one. Each value carries a long
+ * key stored next to it (TimelineService keeps the post's creation time there).
+ * Values and keys are stored unboxed (16 bytes per entry) so a few thousand
+ * timelines of 800 ids stay cheap to keep in memory.
+ * Not thread-safe: callers synchronize on the buffer.
+ */
+public class LongRingBuffer {
+
+    private final long[] values;
+    private final long[] keys;
+    private int head;   // index of the next write
+    private int size;
+
+    public LongRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.values = new long[capacity];
+        this.keys = new long[capacity];
+    }
+
+    public void add(long value, long key) {
+        values[head] = value;
+        keys[head] = key;
+        head = (head + 1) % values.length;
+        if (size < values.length) {
+            size++;
+        }
+    }
+
+    public boolean contains(long value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    /**
+     * Copy of the values, most recently added first.
+     */
+    public long[] newestFirst() {
+        return copyNewestFirst(values);
+    }
+
+    /**
+     * Copy of the keys, in the same order as {@link #newestFirst()}.
+     */
+    public long[] keysNewestFirst() {
+        return copyNewestFirst(keys);
+    }
+
+    private long[] copyNewestFirst(long[] source) {
+        long[] copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = source[Math.floorMod(head - 1 - i, source.length)];
+        }
+        return copy;
+    }
+
+    /**
+     * Drop every value matching the predicate, keeping the order of the others.
+     *
+     * @return number of values removed
+     */
+    public int removeIf(LongPredicate predicate) {
+        long[] kept = new long[size];
+        long[] keptKeys = new long[size];
+        int keptCount = 0;
+        long[] current = newestFirst();
+        long[] currentKeys = keysNewestFirst();
+        for (int i = current.length - 1; i >= 0; i--) {
+            if (!predicate.test(current[i])) {
+                keptKeys[keptCount] = currentKeys[i];
+                kept[keptCount++] = current[i];
+            }
+        }
+        int removed = size - keptCount;
+        if (removed > 0) {
+            Arrays.fill(values, 0L);
+            Arrays.fill(keys, 0L);
+            System.arraycopy(kept, 0, values, 0, keptCount);
+            System.arraycopy(keptKeys, 0, keys, 0, keptCount);
+            size = keptCount;
+            head = keptCount % values.length;
+        }
+        return removed;
+    }
+}
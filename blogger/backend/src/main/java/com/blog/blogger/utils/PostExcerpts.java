@@ -0,0 +1,69 @@
+package com.blog.blogger.utils;
+
+import com.blog.blogger.models.Post;
+
+/**
+ * PostExcerpts - List-view metadata computed from a post's content when it is written
+ *
+ * Feeds show a teaser, a word count and a reading time; computing them once on
+ * create/update lets list queries read a short column instead of the TEXT body.
+ */
+public final class PostExcerpts {
+
+    public static final int EXCERPT_LENGTH = 300;
+    public static final int WORDS_PER_MINUTE = 200;
+
+    private PostExcerpts() {
+    }
+
+    public static void apply(Post post) {
+        String content = post.getContent();
+        int words = wordCount(content);
+        post.setExcerpt(excerpt(content));
+        post.setWordCount(words);
+        post.setReadingTimeMinutes(readingMinutes(words));
+    }
+
+    /**
+     * The start of the content with whitespace collapsed, cut at a word boundary
+     * and ending in "…" when something was left out.
+     */
+    public static String excerpt(String content) {
+        if (content == null) {
+            return "";
+        }
+        String text = content.strip().replaceAll("\\s+", " ");
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        if (cut < EXCERPT_LENGTH / 2) {
+            cut = EXCERPT_LENGTH;
+        }
+        if (Character.isHighSurrogate(text.charAt(cut - 1))) {
+            cut--;
+        }
+        return text.substring(0, cut).stripTrailing() + "…";
+    }
+
+    public static int wordCount(String content) {
+        if (content == null) {
+            return 0;
+        }
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < content.length(); i++) {
+            boolean space = Character.isWhitespace(content.charAt(i));
+            if (!space && !inWord) {
+                words++;
+            }
+            inWord = !space;
+        }
+        return words;
+    }
+
+    /** Whole minutes at WORDS_PER_MINUTE, rounded up (the frontend's former estimate). */
+    public static int readingMinutes(int words) {
+        return (words + WORDS_PER_MINUTE - 1) / WORDS_PER_MINUTE;
+    }
+}
@@ -0,0 +1,56 @@
+package com.blog.blogger.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * SearchTokenizer - Splits text into the terms stored in and looked up from the search index
+ *
+ * Lowercases, strips accents, splits on anything that is not a letter or digit,
+ * and drops very short tokens and common English stop words. Indexing and
+ * querying go through the same method, so both sides always agree.
+ */
+public final class SearchTokenizer {
+
+    private static final int MIN_LENGTH = 2;
+    private static final int MAX_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have",
+            "in", "into", "is", "it", "its", "of", "on", "or", "that", "the", "their", "there",
+            "this", "to", "was", "were", "will", "with");
+
+    private SearchTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addToken(tokens, normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, String token) {
+        if (token.length() >= MIN_LENGTH && token.length() <= MAX_LENGTH && !STOP_WORDS.contains(token)) {
+            tokens.add(token);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.blog.blogger.utils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * SingleFlight - Collapses concurrent loads of the same key into one
+ *
+ * The first caller for a key runs the loader; callers arriving while it is in
+ * flight wait for that result (or exception) instead of issuing their own query.
+ * Nothing is kept once the load finishes: caching is the caller's job.
+ *
+ * A waiter that gives up after {@code maxWait} runs the loader itself, so a slow
+ * load delays followers by at most that long.
+ *
+ * Metrics (tagged type=&lt;name&gt;):
+ * - singleflight.loads: loads actually executed
+ * - singleflight.collapsed: calls served by another caller's load
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Duration maxWait;
+    private final Counter loads;
+    private final Counter collapsed;
+
+    public SingleFlight(String name, boolean enabled, Duration maxWait, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxWait = maxWait;
+        this.loads = Counter.builder("singleflight.loads")
+                .tag("type", name)
+                .description("Loads executed by a single-flight group")
+                .register(meterRegistry);
+        this.collapsed = Counter.builder("singleflight.collapsed")
+                .tag("type", name)
+                .description("Calls that shared an in-flight load instead of running their own")
+                .register(meterRegistry);
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        if (!enabled) {
+            loads.increment();
+            return loader.get();
+        }
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            collapsed.increment();
+            return await(existing, loader);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private V await(CompletableFuture<V> pending, Supplier<V> loader) {
+        try {
+            return pending.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            loads.increment();
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared load", e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.blog.blogger.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * TopKScores - Bounded set of ids ranked by a score that only changes by increments
+ *
+ * A hash map gives the current score of an id and a sorted set keeps the ranking,
+ * so an increment costs O(log k) and reading the top n costs O(log k + n). When
+ * more than capacity ids are held, the lowest-scored one is dropped.
+ * Not thread-safe: callers synchronize.
+ */
+public class TopKScores {
+
+    private record Entry(long id, double score) {
+    }
+
+    private static final Comparator<Entry> HIGHEST_FIRST =
+            Comparator.<Entry>comparingDouble(Entry::score).reversed().thenComparing(Comparator.<Entry>comparingLong(Entry::id).reversed());
+
+    private final int capacity;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranked = new TreeSet<>(HIGHEST_FIRST);
+
+    public TopKScores(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Add delta (possibly negative) to the id's score; an id whose score drops
+     * to zero or below is removed.
+     */
+    public void add(long id, double delta) {
+        Entry old = entries.remove(id);
+        double score = delta;
+        if (old != null) {
+            ranked.remove(old);
+            score += old.score();
+        }
+        if (score <= 0) {
+            return;
+        }
+
+        Entry entry = new Entry(id, score);
+        entries.put(id, entry);
+        ranked.add(entry);
+        if (ranked.size() > capacity) {
+            entries.remove(ranked.pollLast().id());
+        }
+    }
+
+    /**
+     * Lower a held id's score by amount, but not below floor. Ids not held, or
+     * already at or below floor, are left alone.
+     */
+    public void subtract(long id, double amount, double floor) {
+        Entry old = entries.get(id);
+        if (old == null || old.score() <= floor) {
+            return;
+        }
+        double score = Math.max(old.score() - amount, floor);
+        if (score <= 0) {
+            remove(id);
+            return;
+        }
+        Entry entry = new Entry(id, score);
+        ranked.remove(old);
+        entries.put(id, entry);
+        ranked.add(entry);
+    }
+
+    public void remove(long id) {
+        Entry old = entries.remove(id);
+        if (old != null) {
+            ranked.remove(old);
+        }
+    }
+
+    public double score(long id) {
+        Entry entry = entries.get(id);
+        return entry == null ? 0 : entry.score();
+    }
+
+    /**
+     * Ids ranked offset .. offset + limit - 1, highest score first.
+     */
+    public List<Long> top(int offset, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+        Iterator<Entry> it = ranked.iterator();
+        for (int skipped = 0; skipped < offset && it.hasNext(); skipped++) {
+            it.next();
+        }
+        while (ids.size() < limit && it.hasNext()) {
+            ids.add(it.next().id());
+        }
+        return ids;
+    }
+
+    /**
+     * Multiply every score by factor (&gt; 0); the ranking itself does not change.
+     */
+    public void scale(double factor) {
+        List<Entry> scaled = new ArrayList<>(ranked.size());
+        for (Entry entry : ranked) {
+            scaled.add(new Entry(entry.id(), entry.score() * factor));
+        }
+        ranked.clear();
+        entries.clear();
+        for (Entry entry : scaled) {
+            ranked.add(entry);
+            entries.put(entry.id(), entry);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        ranked.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,110 @@
+package com.blog.blogger.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.blog.blogger.models.ErasureJob;
+import com.blog.blogger.models.ErasureJob.Phase;
+import com.blog.blogger.models.ErasureJob.Status;
+import com.blog.blogger.repositories.NotificationRepository;
+import com.blog.blogger.repository.CommentLikeRepository;
+import com.blog.blogger.repository.CommentRepository;
+import com.blog.blogger.repository.ErasureJobRepository;
+import com.blog.blogger.repository.PostLikeRepository;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.repository.ReportRepository;
+import com.blog.blogger.repository.ResponseRepository;
+import com.blog.blogger.repository.SubscriptionRepository;
+import com.blog.blogger.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AccountErasureServiceTest {
+
+    @Mock private ErasureJobRepository erasureJobRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private NotificationRepository notificationRepository;
+    @Mock private SubscriptionRepository subscriptionRepository;
+    @Mock private PostLikeRepository postLikeRepository;
+    @Mock private CommentLikeRepository commentLikeRepository;
+    @Mock private ResponseRepository responseRepository;
+    @Mock private CommentRepository commentRepository;
+    @Mock private PostRepository postRepository;
+    @Mock private ReportRepository reportRepository;
+    @Mock private PostPurgeService postPurgeService;
+    @Mock private PostService postService;
+    @Mock private PostLikerIndex postLikerIndex;
+    @Mock private LikeCounterService likeCounterService;
+    @Mock private CommentLikeCounterService commentLikeCounterService;
+    @Mock private TopCommentIndex topCommentIndex;
+    @Mock private HotPostService hotPostService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private ErasureJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = ErasureJob.builder().id(1L).userId(5L).build();
+        when(erasureJobRepository.findByStatusInOrderByIdAsc(any())).thenReturn(List.of(job));
+        when(erasureJobRepository.findById(1L)).thenReturn(Optional.of(job));
+    }
+
+    private AccountErasureService service(int chunkSize, int maxAttempts) {
+        return new AccountErasureService(erasureJobRepository, userRepository, notificationRepository,
+                subscriptionRepository, postLikeRepository, commentLikeRepository, responseRepository,
+                commentRepository, postRepository, reportRepository, postPurgeService, postService,
+                postLikerIndex, likeCounterService, commentLikeCounterService, topCommentIndex,
+                hotPostService, transactionManager, new SimpleMeterRegistry(), chunkSize, maxAttempts);
+    }
+
+    @Test
+    void walksEveryPhaseUntilDone() {
+        when(notificationRepository.findIdsByUserId(eq(5L), any())).thenReturn(List.of(1L, 2L), List.of());
+        when(notificationRepository.findIdsAboutUserSentToOthers(eq(5L), any())).thenReturn(List.of(3L), List.of());
+        when(userRepository.existsById(5L)).thenReturn(true);
+
+        service(3, 5).runPendingJobs();
+
+        // The first chunk is topped up from the second lookup, so it is full and the phase goes on
+        verify(notificationRepository).findIdsAboutUserSentToOthers(5L, PageRequest.of(0, 1));
+        verify(notificationRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        verify(userRepository).deleteAllByIdInBatch(List.of(5L));
+        assertEquals(Phase.DONE, job.getPhase());
+        assertEquals(Status.COMPLETED, job.getStatus());
+        assertEquals(4, job.getRowsPurged());
+    }
+
+    @Test
+    void failingChunkKeepsItsPhaseAndFailsTheJobAfterMaxAttempts() {
+        when(subscriptionRepository.findIdsInvolvingUser(eq(5L), any())).thenThrow(new IllegalStateException("db down"));
+        AccountErasureService service = service(3, 2);
+
+        service.runPendingJobs();
+
+        assertEquals(Phase.SUBSCRIPTIONS, job.getPhase());
+        assertEquals(Status.RUNNING, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        assertEquals("db down", job.getLastError());
+
+        service.runPendingJobs();
+
+        assertEquals(Phase.SUBSCRIPTIONS, job.getPhase());
+        assertEquals(Status.FAILED, job.getStatus());
+        assertEquals(2, job.getAttempts());
+    }
+}
@@ -0,0 +1,115 @@
+package com.blog.blogger.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.blog.blogger.models.Comment;
+import com.blog.blogger.models.Post;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CommentBatchWriterTest {
+
+    @Mock
+    private CommentService commentService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CommentBatchWriter writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    private CommentBatchWriter start(int writers, long timeoutMs) {
+        writer = new CommentBatchWriter(commentService, meterRegistry, true, writers, 200, 0, 100, timeoutMs);
+        writer.start();
+        return writer;
+    }
+
+    private static Comment comment(long postId, String content) {
+        return Comment.builder().content(content).post(Post.builder().id(postId).build()).build();
+    }
+
+    @Test
+    void commentTheWriterDidNotPickUpInTimeIsWrittenOnTheRequestThread() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<Comment>> batches = new CopyOnWriteArrayList<>();
+        when(commentService.addComments(anyList())).thenAnswer(invocation -> {
+            List<Comment> comments = invocation.getArgument(0);
+            batches.add(comments);
+            release.await(5, TimeUnit.SECONDS);
+            return comments;
+        });
+        Comment stuck = comment(1L, "stuck");
+        Comment late = comment(1L, "late");
+        when(commentService.addComment(late)).thenReturn(late);
+        start(1, 200);
+
+        CompletableFuture<Comment> first = CompletableFuture.supplyAsync(() -> writer.write(stuck));
+        while (batches.isEmpty()) {
+            Thread.sleep(5);
+        }
+        // The only writer is busy with the first batch past the second request's timeout
+        assertSame(late, writer.write(late));
+        assertEquals(1.0, meterRegistry.get("comments.batch.fallbacks").counter().count());
+
+        release.countDown();
+        assertSame(stuck, first.get(5, TimeUnit.SECONDS));
+        writer.stop();
+        // The writer skipped the comment the request thread claimed
+        assertEquals(List.of(List.of(stuck)), batches);
+        verify(commentService, never()).addComment(stuck);
+    }
+
+    @Test
+    void commentsOfOnePostGoToOneWriter() throws Exception {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        when(commentService.addComments(anyList())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return invocation.getArgument(0);
+        });
+        start(4, 2000);
+
+        for (int i = 0; i < 5; i++) {
+            writer.write(comment(6L, "c" + i));
+        }
+        writer.write(comment(7L, "other"));
+
+        assertEquals(6, threads.size());
+        assertEquals(1, threads.subList(0, 5).stream().distinct().count());
+        assertEquals("comment-batch-writer-2", threads.get(0));
+        assertEquals("comment-batch-writer-3", threads.get(5));
+    }
+
+    @Test
+    void disabledWritesDirectly() {
+        writer = new CommentBatchWriter(commentService, meterRegistry, false, 4, 200, 5, 100, 2000);
+        writer.start();
+        Comment comment = comment(1L, "direct");
+        when(commentService.addComment(any())).thenReturn(comment);
+
+        assertSame(comment, writer.write(comment));
+        verify(commentService, never()).addComments(anyList());
+    }
+}
@@ -0,0 +1,109 @@
+package com.blog.blogger.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.blog.blogger.events.OutboxConsumer;
+import com.blog.blogger.events.UserFollowedEvent;
+import com.blog.blogger.models.OutboxEvent;
+import com.blog.blogger.models.OutboxEvent.Status;
+import com.blog.blogger.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutboxDispatcherTest {
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final List<Long> notified = new ArrayList<>();
+    private final List<Long> counted = new ArrayList<>();
+    private int failuresLeft;
+    private OutboxEvent event;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        event = OutboxEvent.builder()
+                .id(7L)
+                .type(OutboxEvent.Type.USER_FOLLOWED)
+                .payload(new ObjectMapper().writeValueAsString(new UserFollowedEvent(1L, "alice", 2L)))
+                .availableAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(repository.findDue(any(), any())).thenReturn(List.of(event));
+    }
+
+    private OutboxDispatcher dispatcher(int maxAttempts) {
+        OutboxConsumer<UserFollowedEvent> counter = OutboxConsumer.of("counter", UserFollowedEvent.class,
+                (eventId, followed) -> counted.add(eventId));
+        OutboxConsumer<UserFollowedEvent> notifier = OutboxConsumer.of("notifier", UserFollowedEvent.class,
+                (eventId, followed) -> {
+                    if (failuresLeft > 0) {
+                        failuresLeft--;
+                        throw new IllegalStateException("down");
+                    }
+                    notified.add(eventId);
+                });
+        return new OutboxDispatcher(repository, new ObjectMapper(), List.of(counter, notifier), Runnable::run,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 10, maxAttempts, 1000, 24);
+    }
+
+    @Test
+    void retryRedeliversOnlyToConsumersThatFailed() {
+        OutboxDispatcher dispatcher = dispatcher(10);
+        failuresLeft = 1;
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        assertEquals(List.of(7L), counted);
+        assertTrue(notified.isEmpty());
+        assertEquals(1, event.getAttempts());
+        assertEquals(Status.PENDING, event.getStatus());
+        assertEquals("counter", event.getDeliveredTo());
+        assertTrue(!event.getAvailableAt().isBefore(before.plus(Duration.ofMillis(1000))));
+        verify(repository).save(event);
+        verify(repository, never()).markDone(any(), any());
+
+        dispatcher.dispatch();
+
+        assertEquals(List.of(7L), counted);
+        assertEquals(List.of(7L), notified);
+        verify(repository).markDone(any(), any());
+    }
+
+    @Test
+    void backoffDoublesUntilTheEventIsGivenUp() {
+        OutboxDispatcher dispatcher = dispatcher(3);
+        failuresLeft = Integer.MAX_VALUE;
+
+        dispatcher.dispatch();
+        LocalDateTime first = event.getAvailableAt();
+        dispatcher.dispatch();
+        LocalDateTime second = event.getAvailableAt();
+        long firstDelay = Duration.between(LocalDateTime.now(), first).toMillis();
+        long secondDelay = Duration.between(LocalDateTime.now(), second).toMillis();
+        assertTrue(firstDelay > 500 && firstDelay <= 1000, "first retry after ~1s, was " + firstDelay);
+        assertTrue(secondDelay > 1500 && secondDelay <= 2000, "second retry after ~2s, was " + secondDelay);
+        assertEquals(Status.PENDING, event.getStatus());
+
+        dispatcher.dispatch();
+
+        assertEquals(3, event.getAttempts());
+        assertEquals(Status.FAILED, event.getStatus());
+        assertEquals(List.of(7L), counted);
+    }
+}
@@ -0,0 +1,119 @@
+package com.blog.blogger.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class CounterBufferTest {
+
+    @Test
+    void accumulatesDrainsAndRestores() {
+        CounterBuffer buffer = new CounterBuffer();
+        buffer.add(1L, 1);
+        buffer.add(1L, 1);
+        buffer.add(2L, 1);
+        buffer.add(2L, -1);
+
+        assertEquals(2L, buffer.pending(1L));
+        assertFalse(buffer.hasPending(2L));
+        assertEquals(1, buffer.size());
+
+        Map<Long, Long> drained = buffer.drain();
+        assertEquals(Map.of(1L, 2L), drained);
+        assertEquals(0, buffer.size());
+
+        buffer.add(1L, 3);
+        buffer.restore(drained);
+        assertEquals(5L, buffer.pending(1L));
+        assertTrue(buffer.ids().contains(1L));
+    }
+
+    @Test
+    void idleIdsAreDroppedAndCanComeBack() {
+        CounterBuffer buffer = new CounterBuffer();
+        buffer.add(1L, 1);
+
+        assertEquals(Map.of(1L, 1L), buffer.drain());
+        assertEquals(Map.of(), buffer.drain());
+        assertEquals(0L, buffer.pending(1L));
+
+        buffer.add(1L, 2);
+        assertEquals(Map.of(1L, 2L), buffer.drain());
+    }
+
+    @Test
+    void concurrentAddsAreNeverLostAcrossDrains() throws Exception {
+        CounterBuffer buffer = new CounterBuffer();
+        int threads = 8;
+        int addsPerThread = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean adding = new AtomicBoolean(true);
+
+        List<Future<?>> adders = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            adders.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < addsPerThread; i++) {
+                    // One hot id plus a spread of others, with unlikes mixed in
+                    buffer.add(1L, 1);
+                    buffer.add((long) (i % 50), i % 3 == 0 ? -1 : 1);
+                }
+                return null;
+            }));
+        }
+
+        long drainedHot = 0;
+        long drainedTotal = 0;
+        start.countDown();
+        Future<?> done = pool.submit(() -> {
+            for (Future<?> adder : adders) {
+                adder.get();
+            }
+            adding.set(false);
+            return null;
+        });
+        while (adding.get()) {
+            for (Map.Entry<Long, Long> entry : buffer.drain().entrySet()) {
+                drainedTotal += entry.getValue();
+                if (entry.getKey() == 1L) {
+                    drainedHot += entry.getValue();
+                }
+            }
+        }
+        done.get();
+        for (Map.Entry<Long, Long> entry : buffer.drain().entrySet()) {
+            drainedTotal += entry.getValue();
+            if (entry.getKey() == 1L) {
+                drainedHot += entry.getValue();
+            }
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        long perThreadSpread = 0;
+        long perThreadHotSpread = 0;
+        for (int i = 0; i < addsPerThread; i++) {
+            long delta = i % 3 == 0 ? -1 : 1;
+            perThreadSpread += delta;
+            if (i % 50 == 1) {
+                perThreadHotSpread += delta;
+            }
+        }
+        assertEquals((long) threads * (addsPerThread + perThreadHotSpread), drainedHot);
+        assertEquals((long) threads * (addsPerThread + perThreadSpread), drainedTotal);
+        assertEquals(0, buffer.size());
+    }
+}
@@ -0,0 +1,71 @@
+package com.blog.blogger.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.blog.blogger.utils.InvertedIndex.Hit;
+
+class InvertedIndexTest {
+
+    private static void put(InvertedIndex index, long id, String text) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        tokens.forEach(token -> termFreqs.merge(token, 1, Integer::sum));
+        index.put(id, termFreqs, tokens.size());
+    }
+
+    private static List<Long> ids(List<Hit> hits) {
+        return hits.stream().map(Hit::id).toList();
+    }
+
+    @Test
+    void ranksByRelevanceAndPagesWithCursor() {
+        InvertedIndex index = new InvertedIndex();
+        put(index, 1, "Spring Boot caching tips");
+        put(index, 2, "Caching, caching and more caching with Caffeine");
+        put(index, 3, "Angular routing");
+
+        List<Hit> first = index.search(List.of("caching"), 1, null);
+        assertEquals(List.of(2L), ids(first));
+        assertEquals(List.of(1L), ids(index.search(List.of("caching"), 10, first.get(0))));
+        assertTrue(index.search(List.of("kotlin"), 10, null).isEmpty());
+    }
+
+    @Test
+    void replacedAndRemovedDocumentsDisappearAndSurviveCompaction() throws IOException {
+        InvertedIndex index = new InvertedIndex();
+        put(index, 1, "java streams");
+        put(index, 2, "java records");
+        put(index, 1, "python generators");
+        index.remove(2);
+
+        assertEquals(List.of(), ids(index.search(List.of("java"), 10, null)));
+        assertEquals(2, index.deadDocuments());
+
+        index.compact();
+        assertEquals(0, index.deadDocuments());
+        assertEquals(List.of(1L), ids(index.search(List.of("python"), 10, null)));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        InvertedIndex restored = InvertedIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(1, restored.size());
+        assertEquals(List.of(1L), ids(restored.search(List.of("generators"), 10, null)));
+    }
+
+    @Test
+    void tokenizerNormalizesAndDropsStopWords() {
+        assertEquals(List.of("cafe", "menu", "2024"), SearchTokenizer.tokenize("The Café-menu of 2024!"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.blog.blogger.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+class KWayMergeTest {
+
+    private static final Comparator<Integer> DESCENDING = Comparator.reverseOrder();
+
+    @Test
+    void mergesSortedSourcesUpToTheLimit() {
+        KWayMerge.Result<Integer> result = KWayMerge.merge(
+                List.of(List.of(9, 5, 1), List.of(8, 7), List.of(), List.of(6, 2)),
+                DESCENDING, Function.identity(), 5);
+
+        assertEquals(List.of(9, 8, 7, 6, 5), result.items());
+        assertTrue(result.cost() > 0);
+    }
+
+    @Test
+    void itemsArrivingThroughSeveralSourcesAreEmittedOnce() {
+        KWayMerge.Result<Integer> result = KWayMerge.merge(
+                List.of(List.of(9, 5, 3), List.of(9, 4, 3), List.of(5)),
+                DESCENDING, Function.identity(), 10);
+
+        assertEquals(List.of(9, 5, 4, 3), result.items());
+    }
+
+    @Test
+    void duplicatesDoNotCountTowardsTheLimit() {
+        KWayMerge.Result<Integer> result = KWayMerge.merge(
+                List.of(List.of(3, 2), List.of(3, 2), List.of(3, 1)),
+                DESCENDING, Function.identity(), 3);
+
+        assertEquals(List.of(3, 2, 1), result.items());
+    }
+
+    @Test
+    void noSources() {
+        KWayMerge.Result<Integer> result = KWayMerge.merge(List.of(), DESCENDING, Function.identity(), 10);
+
+        assertTrue(result.items().isEmpty());
+        assertEquals(0, result.cost());
+    }
+}
@@ -0,0 +1,42 @@
+package com.blog.blogger.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.validation.ValidationException;
+
+class KeysetCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 5, 123_000_000), 42L);
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void blankTokenStartsFromTheNewestRow() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+        assertNull(KeysetCursor.decode("  "));
+    }
+
+    @Test
+    void malformedTokensAreValidationErrors() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2024-03-01T12:30".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString("yesterday|5".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString("2024-03-01T12:30|five".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode("not base64!"));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(noSeparator));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(badDate));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(badId));
+    }
+}
@@ -0,0 +1,55 @@
+package com.blog.blogger.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LongRingBufferTest {
+
+    @Test
+    void overwritesTheOldestOnceFull() {
+        LongRingBuffer ring = new LongRingBuffer(3);
+        for (long value = 1; value <= 5; value++) {
+            ring.add(value, value * 10);
+        }
+
+        assertEquals(3, ring.size());
+        assertArrayEquals(new long[] {5, 4, 3}, ring.newestFirst());
+        assertArrayEquals(new long[] {50, 40, 30}, ring.keysNewestFirst());
+        assertTrue(ring.contains(3));
+        assertFalse(ring.contains(2));
+    }
+
+    @Test
+    void removeIfKeepsOrderAndKeysAligned() {
+        LongRingBuffer ring = new LongRingBuffer(4);
+        for (long value = 1; value <= 6; value++) {
+            ring.add(value, value * 10);
+        }
+
+        assertEquals(2, ring.removeIf(value -> value % 2 == 0 && value > 3));
+
+        assertArrayEquals(new long[] {5, 3}, ring.newestFirst());
+        assertArrayEquals(new long[] {50, 30}, ring.keysNewestFirst());
+
+        // Writes continue after the kept entries without overwriting them
+        ring.add(7, 70);
+        ring.add(8, 80);
+        assertArrayEquals(new long[] {8, 7, 5, 3}, ring.newestFirst());
+        assertArrayEquals(new long[] {80, 70, 50, 30}, ring.keysNewestFirst());
+        ring.add(9, 90);
+        assertArrayEquals(new long[] {9, 8, 7, 5}, ring.newestFirst());
+    }
+
+    @Test
+    void removeIfWithoutMatchesChangesNothing() {
+        LongRingBuffer ring = new LongRingBuffer(2);
+        ring.add(1, 10);
+
+        assertEquals(0, ring.removeIf(value -> false));
+        assertArrayEquals(new long[] {1}, ring.newestFirst());
+    }
+}
@@ -0,0 +1,61 @@
+package com.blog.blogger.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.blog.blogger.models.Post;
+
+class PostExcerptsTest {
+
+    @Test
+    void shortContentIsKeptWithWhitespaceCollapsed() {
+        assertEquals("a b", PostExcerpts.excerpt("  a\n\n b  "));
+        assertEquals("", PostExcerpts.excerpt(null));
+    }
+
+    @Test
+    void longContentIsCutAtAWordBoundary() {
+        String excerpt = PostExcerpts.excerpt("word ".repeat(100));
+
+        assertTrue(excerpt.endsWith("word…"), excerpt);
+        assertTrue(excerpt.length() <= PostExcerpts.EXCERPT_LENGTH + 1);
+    }
+
+    @Test
+    void contentWithoutSpacesIsCutAtTheLength() {
+        assertEquals(PostExcerpts.EXCERPT_LENGTH + 1, PostExcerpts.excerpt("x".repeat(400)).length());
+    }
+
+    @Test
+    void surrogatePairsAreNotSplit() {
+        String content = "x".repeat(PostExcerpts.EXCERPT_LENGTH - 1) + "😀" + "y".repeat(10);
+        String excerpt = PostExcerpts.excerpt(content);
+
+        assertFalse(Character.isHighSurrogate(excerpt.charAt(excerpt.length() - 2)), excerpt);
+        assertEquals(PostExcerpts.EXCERPT_LENGTH, excerpt.length());
+    }
+
+    @Test
+    void wordsAndReadingTime() {
+        assertEquals(100, PostExcerpts.wordCount("word ".repeat(100)));
+        assertEquals(0, PostExcerpts.wordCount("   "));
+        assertEquals(0, PostExcerpts.wordCount(null));
+        assertEquals(0, PostExcerpts.readingMinutes(0));
+        assertEquals(1, PostExcerpts.readingMinutes(1));
+        assertEquals(1, PostExcerpts.readingMinutes(200));
+        assertEquals(2, PostExcerpts.readingMinutes(201));
+    }
+
+    @Test
+    void applySetsAllThreeFields() {
+        Post post = Post.builder().content("one two three").build();
+        PostExcerpts.apply(post);
+
+        assertEquals("one two three", post.getExcerpt());
+        assertEquals(3, post.getWordCount());
+        assertEquals(1, post.getReadingTimeMinutes());
+    }
+}
@@ -0,0 +1,146 @@
+package com.blog.blogger.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).tag("type", "test").counter().count();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", true, Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        Future<String> leader = pool.submit(() -> flight.load(1L, () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "value";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(pool.submit(() -> flight.load(1L, () -> {
+                loads.incrementAndGet();
+                return "own";
+            })));
+        }
+        while (count("singleflight.collapsed") < 5) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("value", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("singleflight.loads"));
+    }
+
+    @Test
+    void nothingIsKeptOnceTheLoadFinishes() {
+        SingleFlight<Long, Integer> flight = new SingleFlight<>("test", true, Duration.ofSeconds(5), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, flight.load(1L, loads::incrementAndGet));
+        assertEquals(2, flight.load(1L, loads::incrementAndGet));
+        assertEquals(0.0, count("singleflight.collapsed"));
+    }
+
+    @Test
+    void waitersSeeTheLoadersException() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", true, Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("down");
+
+        Future<String> leader = pool.submit(() -> flight.load(1L, () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        Future<String> follower = pool.submit(() -> flight.load(1L, () -> "own"));
+        while (count("singleflight.collapsed") < 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerError = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderError.getCause());
+        assertSame(failure, followerError.getCause());
+    }
+
+    @Test
+    void waiterPastMaxWaitLoadsItself() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", true, Duration.ofMillis(50), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = pool.submit(() -> flight.load(1L, () -> {
+            started.countDown();
+            await(release);
+            return "slow";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        assertEquals("own", flight.load(1L, () -> "own"));
+        assertEquals(2.0, count("singleflight.loads"));
+
+        release.countDown();
+        assertEquals("slow", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void disabledAlwaysLoads() {
+        SingleFlight<Long, Integer> flight = new SingleFlight<>("test", false, Duration.ofSeconds(5), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.load(1L, loads::incrementAndGet);
+        flight.load(1L, loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+        assertEquals(2.0, count("singleflight.loads"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
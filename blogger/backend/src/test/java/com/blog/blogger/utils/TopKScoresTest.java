@@ -0,0 +1,76 @@
+package com.blog.blogger.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TopKScoresTest {
+
+    @Test
+    void ranksHighestFirstAndDropsTheLowestBeyondCapacity() {
+        TopKScores scores = new TopKScores(3);
+        scores.add(1, 1);
+        scores.add(2, 5);
+        scores.add(3, 2);
+        scores.add(1, 3);
+        assertEquals(List.of(2L, 1L, 3L), scores.top(0, 10));
+
+        scores.add(4, 10);
+        assertEquals(List.of(4L, 2L, 1L), scores.top(0, 10));
+        assertEquals(0, scores.score(3));
+        assertEquals(List.of(2L, 1L), scores.top(1, 2));
+    }
+
+    @Test
+    void equalScoresRankNewerIdsFirst() {
+        TopKScores scores = new TopKScores(10);
+        scores.add(1, 2);
+        scores.add(3, 2);
+        scores.add(2, 2);
+        assertEquals(List.of(3L, 2L, 1L), scores.top(0, 10));
+    }
+
+    @Test
+    void scalingKeepsTheRanking() {
+        TopKScores scores = new TopKScores(10);
+        scores.add(1, 4);
+        scores.add(2, 8);
+        scores.scale(0.5);
+        assertEquals(List.of(2L, 1L), scores.top(0, 10));
+        assertEquals(2, scores.score(1));
+        assertEquals(4, scores.score(2));
+    }
+
+    @Test
+    void negativeAddsRemoveAnIdAtZero() {
+        TopKScores scores = new TopKScores(10);
+        scores.add(1, 3);
+        scores.add(1, -3);
+        assertEquals(0, scores.size());
+
+        // A negative delta does not bring in an id that is not held
+        scores.add(2, -1);
+        assertEquals(0, scores.size());
+    }
+
+    @Test
+    void subtractStopsAtTheFloor() {
+        TopKScores scores = new TopKScores(10);
+        scores.add(1, 5);
+        scores.add(2, 4);
+
+        scores.subtract(1, 2, 1);
+        assertEquals(3, scores.score(1));
+        assertEquals(List.of(2L, 1L), scores.top(0, 10));
+
+        scores.subtract(1, 10, 1);
+        assertEquals(1, scores.score(1));
+        scores.subtract(1, 10, 1);
+        assertEquals(1, scores.score(1));
+
+        scores.subtract(3, 1, 0);
+        assertEquals(2, scores.size());
+    }
+}
@@ -35,6 +35,9 @@ export class HomeComponent implements OnInit, OnDestroy {
   currentPage: number = 1;
   pageSize: number = 10;
   totalPosts: number = 0;
+  // The following feed pages by cursor: the cursor of each page visited so far, and of the next one
+  followingCursors: (string | undefined)[] = [];
+  nextCursor: string | null = null;
   commentPageSize: number = 5;
 
   // Notification properties
@@ -82,7 +85,7 @@ export class HomeComponent implements OnInit, OnDestroy {
 
   loadPosts(): void {
     const postsObservable = this.showFollowedOnly
-      ? this.postService.getPostsFromFollowedUsers(this.currentPage, this.pageSize)
+      ? this.postService.getPostsFromFollowedUsers(this.pageSize, this.followingCursors[this.currentPage - 1])
       : this.postService.getAllPosts(this.currentPage, this.pageSize);
 
     postsObservable.subscribe({
@@ -91,16 +94,13 @@ export class HomeComponent implements OnInit, OnDestroy {
 
         this.posts = response.posts || response.content || response;
         this.totalPosts = response.total || response.totalElements || 0;
+        this.nextCursor = response.next ?? null;
 
         this.posts.forEach((post) => {
           post.commentsPage = null;
-          console.log("====> " + post);
-
-          this.postService.hasLikedPost(post.id).subscribe({
-            next: (liked) => (post.isLiked = liked),
-            error: () => (post.isLiked = false),
-          });
+          post.isLiked = post.likedByMe ?? false;
         });
+        this.loadLikedState(this.posts.filter((post) => post.likedByMe === undefined || post.likedByMe === null));
       },
       error: () => {
         this.toastService.show('Failed to load posts', 'error');
@@ -108,6 +108,17 @@ export class HomeComponent implements OnInit, OnDestroy {
     });
   }
 
+  // One request for the whole page instead of one /liked call per post
+  loadLikedState(posts: any[]): void {
+    if (posts.length === 0) {
+      return;
+    }
+    this.postService.getLikedPosts(posts.map((post) => post.id)).subscribe({
+      next: (liked) => posts.forEach((post) => (post.isLiked = !!liked[post.id])),
+      error: () => posts.forEach((post) => (post.isLiked = false)),
+    });
+  }
+
   loadComments(post: any, page: number = 0, append: boolean = false): void {
     this.postService.getComments(post.id, page, this.commentPageSize).subscribe({
       next: (response: any) => {
@@ -146,8 +157,17 @@ export class HomeComponent implements OnInit, OnDestroy {
     this.loadComments(post, nextPage, true);
   }
 
+  hasNextPage(): boolean {
+    return this.showFollowedOnly
+      ? !!this.nextCursor
+      : this.currentPage * this.pageSize < this.totalPosts;
+  }
+
   nextPage() {
-    if (this.currentPage * this.pageSize < this.totalPosts) {
+    if (this.hasNextPage()) {
+      if (this.showFollowedOnly) {
+        this.followingCursors[this.currentPage] = this.nextCursor!;
+      }
       this.currentPage++;
       this.loadPosts();
     }
@@ -162,6 +182,9 @@ export class HomeComponent implements OnInit, OnDestroy {
 
   toggleFeedFilter(): void {
     this.showFollowedOnly = !this.showFollowedOnly;
+    this.currentPage = 1;
+    this.followingCursors = [];
+    this.nextCursor = null;
     this.loadPosts();
   }
 
@@ -472,6 +495,12 @@ export class HomeComponent implements OnInit, OnDestroy {
       this.expandedPosts.delete(postIndex);
     } else {
       this.expandedPosts.add(postIndex);
+      // Feed items only carry an excerpt; fetch the full content on first expand
+      if (post.content === undefined) {
+        this.postService.getPostById(post.id).subscribe({
+          next: (fullPost: any) => (post.content = fullPost.content),
+        });
+      }
       if (!post.commentsPage) {
         this.loadComments(post, 0, false);
       }
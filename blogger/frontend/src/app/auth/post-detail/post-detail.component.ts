@@ -30,8 +30,7 @@ export class PostDetailComponent implements OnInit {
   submittingComment: boolean = false;
   comments: any[] = [];
   commentsTotal: number = 0;
-  commentsTotalPages: number = 0;
-  commentsCurrentPage: number = 0;
+  commentsNext: string | null = null;
   commentPageSize: number = 5;
 
   // For editing
@@ -68,10 +67,10 @@ export class PostDetailComponent implements OnInit {
       next: (post) => {
         this.post = post;
         this.comments = post.comments || [];
-        this.commentsTotal = post.comments?.length || 0;
+        this.commentsTotal = post.commentCount ?? post.comments?.length ?? 0;
         this.loading = false;
         this.loadRelatedPosts();
-        this.loadComments(0, false);
+        this.loadComments(null, false);
         console.log('Post loaded:', post);
       },
       error: (error) => {
@@ -151,7 +150,8 @@ export class PostDetailComponent implements OnInit {
     this.postService.deleteComment(this.postId, commentId).subscribe({
       next: () => {
         this.toastService.show('Comment deleted successfully!', 'success');
-        this.loadComments(0, false);
+        this.commentsTotal = Math.max(0, this.commentsTotal - 1);
+        this.loadComments(null, false);
       },
       error: (error: any) => {
         console.error('Error deleting comment:', error);
@@ -160,8 +160,8 @@ export class PostDetailComponent implements OnInit {
     });
   }
 
-  loadComments(page: number = 0, append: boolean = false): void {
-    this.postService.getComments(this.postId, page, this.commentPageSize).subscribe({
+  loadComments(cursor: string | null = null, append: boolean = false): void {
+    this.postService.getCommentsByCursor(this.postId, cursor, this.commentPageSize).subscribe({
       next: (response: any) => {
         const comments = response.comments || [];
         if (!append) {
@@ -169,9 +169,8 @@ export class PostDetailComponent implements OnInit {
         } else {
           this.comments = this.comments.concat(comments);
         }
-        this.commentsTotal = response.total || 0;
-        this.commentsTotalPages = response.totalPages || 0;
-        this.commentsCurrentPage = response.currentPage || page;
+        this.commentsNext = response.next ?? null;
+        this.loadCommentLikedState(comments);
       },
       error: () => {
         this.toastService.show('Failed to load comments', 'error');
@@ -179,12 +178,37 @@ export class PostDetailComponent implements OnInit {
     });
   }
 
+  // One request for the page of comments instead of one /liked call per comment
+  loadCommentLikedState(comments: any[]): void {
+    if (comments.length === 0 || !this.authService.getUserData()) {
+      return;
+    }
+    this.postService.getLikedComments(this.postId, comments.map((comment) => comment.id)).subscribe({
+      next: (liked) => comments.forEach((comment) => (comment.isLiked = !!liked[comment.id])),
+      error: () => comments.forEach((comment) => (comment.isLiked = false)),
+    });
+  }
+
+  toggleCommentLike(comment: any): void {
+    const request = comment.isLiked
+      ? this.postService.unlikeComment(this.postId, comment.id)
+      : this.postService.likeComment(this.postId, comment.id);
+    request.subscribe({
+      next: (response: any) => {
+        comment.likeCount = response.likeCount;
+        comment.isLiked = !comment.isLiked;
+      },
+      error: (error) => {
+        console.error('Error updating comment like:', error);
+      },
+    });
+  }
+
   loadMoreComments(): void {
-    const nextPage = this.commentsCurrentPage + 1;
-    if (nextPage >= this.commentsTotalPages) {
+    if (!this.commentsNext) {
       return;
     }
-    this.loadComments(nextPage, true);
+    this.loadComments(this.commentsNext, true);
   }
 
   // Also add this method to check if it's your own comment
@@ -198,8 +222,9 @@ export class PostDetailComponent implements OnInit {
       console.log(" dkhola lhna=============+> " + this.post);
 
 
-      this.postService.getPostsFromFollowedUsers(1, 5).subscribe({
-        next: (posts) => {
+      this.postService.getPostsFromFollowedUsers(5).subscribe({
+        next: (response: any) => {
+          const posts = response.posts || response;
           this.relatedPosts = posts.filter((p: any) => p.id !== this.postId).slice(0, 3);
         },
         error: (error) => {
@@ -416,7 +441,8 @@ export class PostDetailComponent implements OnInit {
           this.newComment = '';
           this.submittingComment = false;
           this.toastService.show('Comment added!', 'success');
-          this.loadComments(0, false);
+          this.commentsTotal++;
+          this.loadComments(null, false);
         },
         error: (error) => {
           console.error('Error adding comment:', error);
@@ -2,11 +2,15 @@
 export interface Post {
   id: number;
   title: string;
-  content: string;
+  content?: string;
+  excerpt?: string;
+  wordCount?: number;
+  readingTimeMinutes?: number;
   author: PostAuthor;
   likeCount: number;
   isHidden: boolean; // important
   isLiked?: boolean; 
+  likedByMe?: boolean;
   tags: string[];
   commentCount?: number;
   createdAt: string;
@@ -19,6 +23,7 @@ export interface PostAuthor {
   username: string;
   fullName?: string;
   avatar?: string;
+  profilePictureUrl?: string;
 }
 
 export interface CreatePost {
@@ -32,11 +37,22 @@ export interface Comment {
   author: string;
   content: string;
   likeCount: number;
+  replyCount?: number;
+  replies?: Reply[];
   createdAt: string;
   updatedAt: string;
   responses?: Response[];
 }
 
+export interface Reply {
+  id: number;
+  commentId: number;
+  content: string;
+  author: PostAuthor;
+  createdAt: string;
+  updatedAt: string;
+}
+
 export interface Response {
   id: number;
   author: string;
@@ -32,13 +32,46 @@ export class PostService {
   }
 
 
-  getPostsFromFollowedUsers(page: number = 1, size: number = 10): Observable<any> {
-    const params = new HttpParams().set('page', page).set('size', size);
+  getPostsFromFollowedUsers(size: number = 10, cursor?: string): Observable<any> {
+    let params = new HttpParams().set('size', size);
+    if (cursor) {
+      params = params.set('cursor', cursor);
+    }
 
     return this.http.get(`${this.apiUrl}/posts/following`, { params });
   }
 
 
+  searchPosts(query: string, size: number = 10, cursor?: string): Observable<any> {
+    let params = new HttpParams().set('q', query).set('size', size);
+    if (cursor) {
+      params = params.set('cursor', cursor);
+    }
+
+    return this.http.get(`${this.apiUrl}/posts/search`, { params });
+  }
+
+
+  getTags(prefix?: string, limit: number = 20): Observable<any> {
+    let params = new HttpParams().set('limit', limit);
+    if (prefix) {
+      params = params.set('prefix', prefix);
+    }
+
+    return this.http.get(`${this.apiUrl}/posts/tags`, { params });
+  }
+
+
+  getPostsByTag(tag: string, size: number = 10, cursor?: string): Observable<any> {
+    let params = new HttpParams().set('size', size);
+    if (cursor) {
+      params = params.set('cursor', cursor);
+    }
+
+    return this.http.get(`${this.apiUrl}/posts/tags/${encodeURIComponent(tag)}`, { params });
+  }
+
+
   createPost(post: any): Observable<any> {
     return this.http.post(`${this.apiUrl}/posts`, post);
   }
@@ -60,6 +93,32 @@ export class PostService {
     return this.http.get(`${this.apiUrl}/posts/${postId}/comments`, { params });
   }
 
+  // Cursor mode: pass null for the first page, then the returned `next` until it is null
+  getCommentsByCursor(postId: number, cursor: string | null, size: number = 5): Observable<any> {
+    const params = new HttpParams().set('cursor', cursor ?? '').set('size', size);
+    return this.http.get(`${this.apiUrl}/posts/${postId}/comments`, { params });
+  }
+
+  // Most liked comments first: { comments, currentPage, hasNext }
+  getTopComments(postId: number, page: number = 0, size: number = 5): Observable<any> {
+    const params = new HttpParams().set('sort', 'top').set('page', page).set('size', size);
+    return this.http.get(`${this.apiUrl}/posts/${postId}/comments`, { params });
+  }
+
+  // Replies to a comment, oldest first: pass null, then the returned `next` until it is null
+  getReplies(postId: number, commentId: number, cursor: string | null, size: number = 10): Observable<any> {
+    const params = new HttpParams().set('cursor', cursor ?? '').set('size', size);
+    return this.http.get(`${this.apiUrl}/posts/${postId}/comments/${commentId}/replies`, { params });
+  }
+
+  addReply(postId: number, commentId: number, content: string): Observable<any> {
+    return this.http.post(`${this.apiUrl}/posts/${postId}/comments/${commentId}/replies`, { content });
+  }
+
+  deleteReply(postId: number, commentId: number, replyId: number): Observable<any> {
+    return this.http.delete(`${this.apiUrl}/posts/${postId}/comments/${commentId}/replies/${replyId}`);
+  }
+
   deletePost(postId: number): Observable<any> {
     return this.http.delete(`${this.apiUrl}/posts/${postId}`);
   }
@@ -85,6 +144,27 @@ export class PostService {
   }
 
 
+  getLikedPosts(postIds: number[]): Observable<Record<number, boolean>> {
+    const params = new HttpParams().set('ids', postIds.join(','));
+    return this.http.get<Record<number, boolean>>(`${this.apiUrl}/posts/liked`, { params });
+  }
+
+  likeComment(postId: number, commentId: number): Observable<any> {
+    return this.http.post(`${this.apiUrl}/posts/${postId}/comments/${commentId}/like`, {});
+  }
+
+
+  unlikeComment(postId: number, commentId: number): Observable<any> {
+    return this.http.delete(`${this.apiUrl}/posts/${postId}/comments/${commentId}/like`);
+  }
+
+
+  getLikedComments(postId: number, commentIds: number[]): Observable<Record<number, boolean>> {
+    const params = new HttpParams().set('ids', commentIds.join(','));
+    return this.http.get<Record<number, boolean>>(`${this.apiUrl}/posts/${postId}/comments/liked`, { params });
+  }
+
+
   getPostById(postId: number): Observable<any> {
     return this.http.get<any>(`${this.apiUrl}/posts/${postId}`, {
       headers: this.getAuthHeaders(),